@@ -0,0 +1,29 @@
+package xyz.nucleoid.fantasy.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.data.registries.VanillaRegistries;
+import net.minecraft.server.Bootstrap;
+
+final class BenchmarkBootstrap {
+    private static HolderLookup.Provider registries;
+
+    private BenchmarkBootstrap() {
+    }
+
+    static synchronized void init() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    /**
+     * @return the built-in vanilla registries, which include biomes and dimension types without loading a data pack
+     */
+    static synchronized HolderLookup.Provider registries() {
+        init();
+        if (registries == null) {
+            registries = VanillaRegistries.createLookup();
+        }
+        return registries;
+    }
+}
@@ -0,0 +1,54 @@
+package xyz.nucleoid.fantasy.benchmark;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.world.level.biome.Biomes;
+import net.minecraft.world.level.dimension.BuiltinDimensionTypes;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.dimension.LevelStem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.nucleoid.fantasy.RuntimeWorldConfig;
+import xyz.nucleoid.fantasy.util.VoidChunkGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DimensionOptionsBenchmark {
+    private RuntimeWorldConfig config;
+
+    @Setup
+    public void setup() {
+        HolderLookup.Provider registries = BenchmarkBootstrap.registries();
+        Holder<DimensionType> dimensionType = registries.lookupOrThrow(Registries.DIMENSION_TYPE).getOrThrow(BuiltinDimensionTypes.OVERWORLD);
+
+        // with a resolved dimension type holder, no server is needed to create the dimension options
+        this.config = new RuntimeWorldConfig()
+                .setDimensionType(dimensionType)
+                .setGenerator(new VoidChunkGenerator(registries.lookupOrThrow(Registries.BIOME).getOrThrow(Biomes.THE_VOID)));
+    }
+
+    @Benchmark
+    public LevelStem createDimensionOptions() {
+        return this.config.createDimensionOptions(null);
+    }
+
+    @Benchmark
+    public LevelStem copyAndCreateDimensionOptions() {
+        return this.config.copy().createDimensionOptions(null);
+    }
+}
@@ -0,0 +1,84 @@
+package xyz.nucleoid.fantasy.benchmark;
+
+import net.minecraft.world.flag.FeatureFlags;
+import net.minecraft.world.level.gamerules.GameRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.nucleoid.fantasy.FantasyGameRules;
+import xyz.nucleoid.fantasy.util.GameRuleStore;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameRuleStoreBenchmark {
+    private GameRuleStore store;
+    private GameRules rules;
+    private GameRules vanillaRules;
+    private GameRules layeredRules;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+
+        this.store = new GameRuleStore();
+        this.store.set(GameRules.ADVANCE_TIME, false);
+        this.store.set(GameRules.ADVANCE_WEATHER, false);
+        this.store.set(GameRules.SPAWN_MOBS, false);
+        this.store.set(GameRules.RANDOM_TICK_SPEED, 0);
+        this.store.set(GameRules.FALL_DAMAGE, false);
+
+        this.rules = new GameRules(FeatureFlags.DEFAULT_FLAGS);
+
+        GameRuleStore overrides = new GameRuleStore();
+        overrides.set(GameRules.SPAWN_MOBS, false);
+
+        this.vanillaRules = new GameRules(FeatureFlags.DEFAULT_FLAGS);
+        overrides.applyTo(this.vanillaRules, null);
+        this.layeredRules = new GameRules(FeatureFlags.DEFAULT_FLAGS);
+        ((FantasyGameRules) this.layeredRules).fantasy$setBase(new GameRules(FeatureFlags.DEFAULT_FLAGS), overrides);
+    }
+
+    @Benchmark
+    public GameRules applyTo() {
+        this.store.applyTo(this.rules, null);
+        return this.rules;
+    }
+
+    @Benchmark
+    public GameRules createAndApply() {
+        GameRules rules = new GameRules(FeatureFlags.DEFAULT_FLAGS);
+        this.store.applyTo(rules, null);
+        return rules;
+    }
+
+    @Benchmark
+    public void getVanilla(Blackhole blackhole) {
+        read(this.vanillaRules, blackhole);
+    }
+
+    @Benchmark
+    public void getLayered(Blackhole blackhole) {
+        read(this.layeredRules, blackhole);
+    }
+
+    private static void read(GameRules rules, Blackhole blackhole) {
+        // one rule set in the override layer, and one boolean and one integer rule only found in the base
+        blackhole.consume(rules.get(GameRules.SPAWN_MOBS));
+        blackhole.consume(rules.get(GameRules.FALL_DAMAGE));
+        blackhole.consume(rules.get(GameRules.RANDOM_TICK_SPEED));
+    }
+}
@@ -0,0 +1,99 @@
+package xyz.nucleoid.fantasy.benchmark;
+
+import com.mojang.serialization.Lifecycle;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.RegistrationInfo;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.Identifier;
+import net.minecraft.resources.ResourceKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.nucleoid.fantasy.RemoveFromRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures insertion, removal and iteration of a {@link MappedRegistry} after it has gone through a number of
+ * register/remove cycles, like the dimension registry does while runtime worlds are opened and deleted.
+ * <p>
+ * Removal is provided by Fantasy's registry mixin, so this benchmark only runs where mixins are applied, for example
+ * through the {@code /fantasy_bench} command of the test mod.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryChurnBenchmark {
+    private static final ResourceKey<Registry<Object>> REGISTRY_KEY = ResourceKey.createRegistryKey(Identifier.fromNamespaceAndPath("fantasy", "benchmark"));
+
+    @Param({"64"})
+    public int liveEntries;
+
+    @Param({"0", "1000", "10000"})
+    public int churnCycles;
+
+    private MappedRegistry<Object> registry;
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkBootstrap.init();
+
+        this.registry = new MappedRegistry<>(REGISTRY_KEY, Lifecycle.stable());
+        if (!(this.registry instanceof RemoveFromRegistry<?>)) {
+            throw new IllegalStateException("Fantasy mixins are not applied, run this benchmark in-game through /fantasy_bench");
+        }
+
+        for (int i = 0; i < this.liveEntries; i++) {
+            this.register();
+        }
+        for (int i = 0; i < this.churnCycles; i++) {
+            this.removeOne(this.register());
+        }
+    }
+
+    @Benchmark
+    public void insertRemove() {
+        this.removeOne(this.register());
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Object value : this.registry) {
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void lookupById(Blackhole blackhole) {
+        MappedRegistry<Object> registry = this.registry;
+        int size = registry.size();
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(registry.byId(i));
+        }
+    }
+
+    private Object register() {
+        Object value = new Object();
+        ResourceKey<Object> key = ResourceKey.create(REGISTRY_KEY, Identifier.fromNamespaceAndPath("fantasy", "entry_" + this.nextId++));
+        this.registry.register(key, value, RegistrationInfo.BUILT_IN);
+        return value;
+    }
+
+    private void removeOne(Object value) {
+        RemoveFromRegistry.remove(this.registry, value);
+    }
+}
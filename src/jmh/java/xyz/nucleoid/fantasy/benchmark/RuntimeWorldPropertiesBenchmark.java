@@ -0,0 +1,78 @@
+package xyz.nucleoid.fantasy.benchmark;
+
+import com.mojang.serialization.Lifecycle;
+import net.minecraft.world.Difficulty;
+import net.minecraft.world.flag.FeatureFlags;
+import net.minecraft.world.level.GameType;
+import net.minecraft.world.level.LevelSettings;
+import net.minecraft.world.level.WorldDataConfiguration;
+import net.minecraft.world.level.gamerules.GameRules;
+import net.minecraft.world.level.levelgen.WorldOptions;
+import net.minecraft.world.level.storage.PrimaryLevelData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.nucleoid.fantasy.RuntimeWorldConfig;
+import xyz.nucleoid.fantasy.RuntimeWorldProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the getters of {@link RuntimeWorldProperties} which are called several times per tick by every world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuntimeWorldPropertiesBenchmark {
+    private RuntimeWorldProperties properties;
+    private RuntimeWorldProperties mirroringProperties;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+
+        LevelSettings settings = new LevelSettings(
+                "benchmark", GameType.SURVIVAL, false, Difficulty.NORMAL, false,
+                new GameRules(FeatureFlags.DEFAULT_FLAGS), WorldDataConfiguration.DEFAULT
+        );
+        PrimaryLevelData worldData = new PrimaryLevelData(settings, new WorldOptions(0, false, false), PrimaryLevelData.SpecialWorldProperty.NONE, Lifecycle.stable());
+
+        this.properties = new RuntimeWorldProperties(worldData, new RuntimeWorldConfig()
+                .setShouldTickTime(true)
+                .setRaining(100));
+        this.mirroringProperties = new RuntimeWorldProperties(worldData, new RuntimeWorldConfig()
+                .setMirrorOverworldGameRules(true)
+                .setMirrorOverworldDifficulty(true));
+    }
+
+    @Benchmark
+    public void getters(Blackhole blackhole) {
+        consume(this.properties, blackhole);
+    }
+
+    @Benchmark
+    public void mirroringGetters(Blackhole blackhole) {
+        consume(this.mirroringProperties, blackhole);
+    }
+
+    private static void consume(RuntimeWorldProperties properties, Blackhole blackhole) {
+        blackhole.consume(properties.getDayTime());
+        blackhole.consume(properties.getGameTime());
+        blackhole.consume(properties.isRaining());
+        blackhole.consume(properties.isThundering());
+        blackhole.consume(properties.getRainTime());
+        blackhole.consume(properties.getDifficulty());
+        blackhole.consume(properties.getGameRules());
+    }
+}
@@ -0,0 +1,75 @@
+package xyz.nucleoid.fantasy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.nucleoid.fantasy.util.SafeIterator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of iterating over the server's level map while levels may be added or removed during iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SafeIteratorBenchmark {
+    @Param({"3", "50", "200"})
+    public int levels;
+
+    private Collection<Object> values;
+    private Object[] snapshot;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < this.levels; i++) {
+            map.put("level_" + i, new Object());
+        }
+        this.values = map.values();
+        this.snapshot = this.values.toArray();
+    }
+
+    @Benchmark
+    public void copyingSafeIterator(Blackhole blackhole) {
+        consume(new SafeIterator<>(this.values), blackhole);
+    }
+
+    @Benchmark
+    public void cachedSnapshotSafeIterator(Blackhole blackhole) {
+        consume(new SafeIterator<>(this.snapshot), blackhole);
+    }
+
+    @Benchmark
+    public void arrayListCopy(Blackhole blackhole) {
+        consume(new ArrayList<>(this.values).iterator(), blackhole);
+    }
+
+    @Benchmark
+    public void directIteration(Blackhole blackhole) {
+        consume(this.values.iterator(), blackhole);
+    }
+
+    private static void consume(Iterator<Object> iterator, Blackhole blackhole) {
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package xyz.nucleoid.fantasy.benchmark;
+
+import com.mojang.serialization.Lifecycle;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.MappedRegistry;
+import net.minecraft.core.RegistrationInfo;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Biomes;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.PalettedContainerFactory;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.chunk.UpgradeData;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.blending.Blender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import xyz.nucleoid.fantasy.util.VoidChunkGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating and filling a single chunk with the {@link VoidChunkGenerator}, covering the generator calls the
+ * chunk pipeline makes for every chunk of a void world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoidChunkGeneratorBenchmark {
+    private static final LevelHeightAccessor HEIGHT = LevelHeightAccessor.create(-64, 384);
+
+    private VoidChunkGenerator generator;
+    private PalettedContainerFactory containerFactory;
+    private int chunkIndex;
+
+    @Setup
+    public void setup() {
+        HolderLookup.Provider registries = BenchmarkBootstrap.registries();
+        Biome voidBiome = registries.lookupOrThrow(Registries.BIOME).getOrThrow(Biomes.THE_VOID).value();
+
+        MappedRegistry<Biome> biomes = new MappedRegistry<>(Registries.BIOME, Lifecycle.stable());
+        var biome = biomes.register(Biomes.THE_VOID, voidBiome, RegistrationInfo.BUILT_IN);
+        biomes.freeze();
+
+        this.generator = new VoidChunkGenerator(biome);
+        this.containerFactory = PalettedContainerFactory.create(new RegistryAccess.ImmutableRegistryAccess(List.of(biomes)).freeze());
+    }
+
+    @Benchmark
+    public ChunkAccess createAndFill() {
+        int index = this.chunkIndex++;
+        ChunkPos pos = new ChunkPos(index & 0xFF, index >> 8 & 0xFF);
+        ProtoChunk chunk = new ProtoChunk(pos, UpgradeData.EMPTY, HEIGHT, this.containerFactory, null);
+
+        // the void generator neither samples noise nor looks at the surrounding region
+        RandomState randomState = null;
+        this.generator.fillFromNoise(Blender.empty(), randomState, null, chunk).join();
+        this.generator.buildSurface(null, null, randomState, chunk);
+        Heightmap.primeHeightmaps(chunk, ChunkStatus.FULL.heightmapsAfter());
+
+        return chunk;
+    }
+}
@@ -0,0 +1,264 @@
+package xyz.nucleoid.fantasy;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.ChunkPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Generates a square of chunks around a center in a spiral, keeping a limited amount of chunks in flight.
+ * <p>
+ * Every chunk is only held by a short-lived ticket, so finished chunks are saved and unloaded again by the chunk map
+ * right away and memory stays flat regardless of the radius. The amount of chunks in flight is halved whenever the
+ * server falls behind the target tick time and grows again once it has recovered.
+ * <p>
+ * How far the spiral has been completed without gaps is periodically written into the world directory, such that a
+ * later run with the same center and radius can skip everything before that point.
+ *
+ * @see RuntimeWorldHandle#pregenerate(ChunkPos, int, PregenerationOptions)
+ */
+final class ChunkPregenerator {
+    private static final String PROGRESS_FILE = "fantasy_pregeneration.txt";
+    private static final int SAVE_INTERVAL = 20 * 5;
+    private static final int BACKOFF_INTERVAL = 20;
+    private static final long DRIVE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final RuntimeWorld world;
+    private final MinecraftServer server;
+    private final FantasyIoWorker ioWorker;
+    private final ChunkPos center;
+    private final int radius;
+    private final PregenerationOptions options;
+    @Nullable
+    private final Path progressFile;
+
+    private final CompletableFuture<PregenerationProgress> future = new CompletableFuture<>();
+
+    private final long totalChunks;
+    private final long startIndex;
+    private final BitSet completed = new BitSet();
+    private long watermark;
+    private long nextIndex;
+    private int inFlight;
+    private int peakInFlight;
+    private long generated;
+
+    private int concurrency;
+    private int lastBackoffTick;
+    private int ticks;
+    private final long startTime = System.nanoTime();
+
+    ChunkPregenerator(RuntimeWorld world, FantasyIoWorker ioWorker, ChunkPos center, int radius, PregenerationOptions options) {
+        this.world = world;
+        this.server = world.getServer();
+        this.ioWorker = ioWorker;
+        this.center = center;
+        this.radius = radius;
+        this.options = options;
+        this.progressFile = options.isResumable() ? world.getDimensionPath().resolve(PROGRESS_FILE) : null;
+
+        long side = 2L * radius + 1;
+        this.totalChunks = side * side;
+        this.startIndex = Math.min(this.readProgress(), this.totalChunks);
+        this.watermark = this.startIndex;
+        this.nextIndex = this.startIndex;
+        this.concurrency = options.getMaxConcurrency();
+    }
+
+    /**
+     * Advances the generation by one step.
+     *
+     * @return whether the generation has finished or been cancelled
+     */
+    boolean tick() {
+        if (this.future.isDone()) {
+            this.saveProgress();
+            return true;
+        }
+
+        this.ticks++;
+        this.adjustConcurrency();
+
+        this.world.wake();
+        if (!((FantasyWorldAccess) this.world).fantasy$shouldTick()) {
+            // the world is not ticked while empty, but chunk tickets still need to be processed to unload chunks
+            long deadline = System.nanoTime() + DRIVE_BUDGET_NANOS;
+            this.world.getChunkSource().tick(() -> System.nanoTime() < deadline, false);
+        }
+
+        while (this.inFlight < this.concurrency && this.nextIndex < this.totalChunks) {
+            long index = this.nextIndex++;
+            ChunkPos pos = this.spiralPos(index);
+
+            this.inFlight++;
+            this.peakInFlight = Math.max(this.peakInFlight, this.inFlight);
+            this.world.requestChunk(pos.x, pos.z).whenCompleteAsync((result, throwable) -> {
+                this.inFlight--;
+                if (throwable != null) {
+                    Fantasy.LOGGER.warn("Failed to pregenerate chunk {} in {}", pos, this.world.dimension().identifier(), throwable);
+                } else if (!result.isSuccess()) {
+                    Fantasy.LOGGER.warn("Failed to pregenerate chunk {} in {}: {}", pos, this.world.dimension().identifier(), result.getError());
+                }
+                this.onChunkCompleted(index);
+            }, this.server);
+        }
+
+        if (this.ticks % this.options.getProgressInterval() == 0) {
+            Consumer<PregenerationProgress> listener = this.options.getProgressListener();
+            if (listener != null) {
+                listener.accept(this.getProgress());
+            }
+        }
+        if (this.ticks % SAVE_INTERVAL == 0) {
+            this.saveProgress();
+        }
+
+        if (this.watermark >= this.totalChunks) {
+            this.deleteProgress();
+            this.future.complete(this.getProgress());
+            return true;
+        }
+        return false;
+    }
+
+    private void adjustConcurrency() {
+        float mspt = this.server.getAverageTickTimeNanos() / 1_000_000.0F;
+        float target = this.options.getTargetMspt();
+
+        if (mspt > target) {
+            if (this.ticks - this.lastBackoffTick >= BACKOFF_INTERVAL) {
+                this.concurrency = Math.max(this.concurrency / 2, mspt > target * 1.25F ? 0 : 1);
+                this.lastBackoffTick = this.ticks;
+            }
+        } else if (mspt < target * 0.8F || this.concurrency == 0) {
+            // a paused pregeneration resumes as soon as the server is within its target, as the load of the server
+            // itself might never drop low enough to grow it otherwise
+            this.concurrency = Math.min(this.concurrency + 1, this.options.getMaxConcurrency());
+        }
+    }
+
+    private void onChunkCompleted(long index) {
+        this.generated++;
+        this.completed.set((int) (index - this.startIndex));
+        while (this.watermark < this.totalChunks && this.completed.get((int) (this.watermark - this.startIndex))) {
+            this.watermark++;
+        }
+    }
+
+    /**
+     * Maps an index onto a square spiral around the center, starting with the center itself and then walking the
+     * rings around it clockwise.
+     */
+    private ChunkPos spiralPos(long index) {
+        if (index == 0) {
+            return this.center;
+        }
+
+        int ring = (int) ((Math.sqrt(index) + 1) / 2);
+        long inner = (2L * ring - 1) * (2L * ring - 1);
+        if (index < inner) {
+            ring--;
+            inner = (2L * ring - 1) * (2L * ring - 1);
+        }
+
+        int offset = (int) (index - inner);
+        int side = offset / (2 * ring);
+        int step = offset % (2 * ring);
+
+        int x;
+        int z;
+        switch (side) {
+            case 0 -> {
+                x = -ring + step;
+                z = -ring;
+            }
+            case 1 -> {
+                x = ring;
+                z = -ring + step;
+            }
+            case 2 -> {
+                x = ring - step;
+                z = ring;
+            }
+            default -> {
+                x = -ring;
+                z = ring - step;
+            }
+        }
+        return new ChunkPos(this.center.x + x, this.center.z + z);
+    }
+
+    PregenerationProgress getProgress() {
+        return new PregenerationProgress(this.watermark, this.totalChunks, this.generated, System.nanoTime() - this.startTime, this.concurrency, this.peakInFlight);
+    }
+
+    private long readProgress() {
+        if (this.progressFile == null || !Files.exists(this.progressFile)) {
+            return 0;
+        }
+
+        try {
+            String[] values = Files.readString(this.progressFile, StandardCharsets.UTF_8).trim().split(" ");
+            if (values.length == 4
+                    && Integer.parseInt(values[0]) == this.center.x
+                    && Integer.parseInt(values[1]) == this.center.z
+                    && Integer.parseInt(values[2]) == this.radius) {
+                return Long.parseLong(values[3]);
+            }
+        } catch (IOException | NumberFormatException e) {
+            Fantasy.LOGGER.warn("Failed to read pregeneration progress of {}", this.world.dimension().identifier(), e);
+        }
+        return 0;
+    }
+
+    private void saveProgress() {
+        Path progressFile = this.progressFile;
+        if (progressFile == null || this.watermark >= this.totalChunks) {
+            return;
+        }
+
+        String progress = this.center.x + " " + this.center.z + " " + this.radius + " " + this.watermark;
+        this.ioWorker.submit(() -> {
+            try {
+                Files.createDirectories(progressFile.getParent());
+                Files.writeString(progressFile, progress, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                Fantasy.LOGGER.warn("Failed to save pregeneration progress to {}", progressFile, e);
+            }
+        });
+    }
+
+    private void deleteProgress() {
+        Path progressFile = this.progressFile;
+        if (progressFile != null) {
+            this.ioWorker.submit(() -> {
+                try {
+                    Files.deleteIfExists(progressFile);
+                } catch (IOException e) {
+                    Fantasy.LOGGER.warn("Failed to delete pregeneration progress {}", progressFile, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops generating and stores the progress made so far, such that it can be resumed later.
+     */
+    void cancel() {
+        if (this.future.cancel(false)) {
+            this.saveProgress();
+        }
+    }
+
+    CompletableFuture<PregenerationProgress> getFuture() {
+        return this.future;
+    }
+}
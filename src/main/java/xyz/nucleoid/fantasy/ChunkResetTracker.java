@@ -0,0 +1,124 @@
+package xyz.nucleoid.fantasy;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the state of every chunk of a resettable world as it was when the chunk was first loaded, together with the
+ * set of chunks that have been modified since, such that only those chunks need to be restored on reset.
+ * <p>
+ * The state of a chunk is only kept while it is loaded or modified. A chunk which is unloaded without being modified
+ * is read back in its original state, so its state is captured again the next time it is loaded.
+ */
+@ApiStatus.Internal
+public final class ChunkResetTracker {
+    private final RuntimeWorld world;
+
+    private final Long2ObjectMap<ChunkSnapshot> snapshots = new Long2ObjectOpenHashMap<>();
+    private final LongSet modifiedChunks = new LongOpenHashSet();
+    private boolean restoring;
+
+    ChunkResetTracker(RuntimeWorld world) {
+        this.world = world;
+    }
+
+    public void onChunkLoaded(LevelChunk chunk) {
+        long pos = chunk.getPos().toLong();
+        if (!this.snapshots.containsKey(pos)) {
+            this.snapshots.put(pos, ChunkSnapshot.capture(chunk, this.world.registryAccess()));
+        }
+    }
+
+    public void onChunkUnloaded(LevelChunk chunk) {
+        long pos = chunk.getPos().toLong();
+        if (!this.modifiedChunks.contains(pos)) {
+            this.snapshots.remove(pos);
+        }
+    }
+
+    public void onChunkModified(LevelChunk chunk) {
+        if (!this.restoring) {
+            this.modifiedChunks.add(chunk.getPos().toLong());
+        }
+    }
+
+    /**
+     * Restores all modified chunks to their original state and removes every entity except for players. Modified
+     * chunks which are not loaded are loaded in the background and restored once they are.
+     *
+     * @return the amount of chunks that were or will be restored
+     */
+    int reset() {
+        List<Entity> entities = new ArrayList<>();
+        for (Entity entity : this.world.getAllEntities()) {
+            if (!(entity instanceof Player)) {
+                entities.add(entity);
+            }
+        }
+        for (Entity entity : entities) {
+            entity.discard();
+        }
+
+        int restored = 0;
+
+        this.restoring = true;
+        try {
+            LongIterator iterator = this.modifiedChunks.iterator();
+            while (iterator.hasNext()) {
+                ChunkSnapshot snapshot = this.snapshots.get(iterator.nextLong());
+                if (snapshot != null) {
+                    ChunkPos pos = snapshot.getPos();
+                    LevelChunk chunk = this.world.getChunkSource().getChunkNow(pos.x, pos.z);
+                    if (chunk != null) {
+                        snapshot.restore(this.world, chunk);
+                    } else {
+                        this.restoreInBackground(snapshot);
+                    }
+                    restored++;
+                }
+            }
+            this.modifiedChunks.clear();
+        } finally {
+            this.restoring = false;
+        }
+
+        return restored;
+    }
+
+    private void restoreInBackground(ChunkSnapshot snapshot) {
+        ChunkPos pos = snapshot.getPos();
+        this.world.acquireChunk(pos.x, pos.z).whenCompleteAsync((result, throwable) -> {
+            try {
+                LevelChunk chunk = this.world.getChunkSource().getChunkNow(pos.x, pos.z);
+                if (chunk == null) {
+                    Fantasy.LOGGER.warn("Failed to load chunk {} to reset it in {}", pos, this.world.dimension().identifier(), throwable);
+                    return;
+                }
+
+                this.restoring = true;
+                try {
+                    snapshot.restore(this.world, chunk);
+                } finally {
+                    this.restoring = false;
+                }
+            } finally {
+                this.world.releaseChunk(pos.x, pos.z);
+            }
+        }, this.world.getServer());
+    }
+
+    public int getModifiedChunkCount() {
+        return this.modifiedChunks.size();
+    }
+}
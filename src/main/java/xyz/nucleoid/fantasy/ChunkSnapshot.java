@@ -0,0 +1,108 @@
+package xyz.nucleoid.fantasy;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+/**
+ * An in-memory copy of the blocks and block entities of a single chunk, which can be written back into the world by
+ * only touching the blocks that differ from the captured state.
+ */
+final class ChunkSnapshot {
+    private static final int RESTORE_FLAGS = Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE | Block.UPDATE_SUPPRESS_DROPS;
+
+    private final ChunkPos pos;
+    private final PalettedContainer<BlockState>[] states;
+    private final Long2ObjectMap<CompoundTag> blockEntities;
+
+    private ChunkSnapshot(ChunkPos pos, PalettedContainer<BlockState>[] states, Long2ObjectMap<CompoundTag> blockEntities) {
+        this.pos = pos;
+        this.states = states;
+        this.blockEntities = blockEntities;
+    }
+
+    @SuppressWarnings("unchecked")
+    static ChunkSnapshot capture(LevelChunk chunk, HolderLookup.Provider registries) {
+        LevelChunkSection[] sections = chunk.getSections();
+
+        PalettedContainer<BlockState>[] states = new PalettedContainer[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            states[i] = sections[i].getStates().copy();
+        }
+
+        Long2ObjectMap<CompoundTag> blockEntities = new Long2ObjectOpenHashMap<>();
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            blockEntities.put(blockEntity.getBlockPos().asLong(), blockEntity.saveWithFullMetadata(registries));
+        }
+
+        return new ChunkSnapshot(chunk.getPos(), states, blockEntities);
+    }
+
+    ChunkPos getPos() {
+        return this.pos;
+    }
+
+    /**
+     * Writes this snapshot back into the given world, which must have the chunk loaded.
+     *
+     * @return the amount of blocks that had to be changed
+     */
+    int restore(ServerLevel world, LevelChunk chunk) {
+        LevelChunkSection[] sections = chunk.getSections();
+
+        int minX = this.pos.getMinBlockX();
+        int minZ = this.pos.getMinBlockZ();
+
+        BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+        int changed = 0;
+
+        for (int i = 0; i < sections.length && i < this.states.length; i++) {
+            PalettedContainer<BlockState> original = this.states[i];
+            LevelChunkSection section = sections[i];
+            if (section.hasOnlyAir() && !original.maybeHas(state -> !state.isAir())) {
+                continue;
+            }
+
+            int minY = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(i));
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = original.get(x, y, z);
+                        if (section.getBlockState(x, y, z) != state) {
+                            world.setBlock(mutablePos.set(minX + x, minY + y, minZ + z), state, RESTORE_FLAGS);
+                            changed++;
+                        }
+                    }
+                }
+            }
+        }
+
+        HolderLookup.Provider registries = world.registryAccess();
+        for (Long2ObjectMap.Entry<CompoundTag> entry : this.blockEntities.long2ObjectEntrySet()) {
+            BlockPos pos = BlockPos.of(entry.getLongKey());
+            BlockEntity blockEntity = BlockEntity.loadStatic(pos, world.getBlockState(pos), entry.getValue(), registries);
+            if (blockEntity != null) {
+                world.setBlockEntity(blockEntity);
+                world.getChunkSource().blockChanged(pos);
+            }
+        }
+
+        BoundingBox bounds = new BoundingBox(minX, world.getMinY(), minZ, minX + 15, world.getMaxY(), minZ + 15);
+        world.getBlockTicks().clearArea(bounds);
+        world.getFluidTicks().clearArea(bounds);
+
+        return changed;
+    }
+}
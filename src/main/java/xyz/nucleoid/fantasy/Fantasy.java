@@ -2,32 +2,39 @@ package xyz.nucleoid.fantasy;
 
 import com.google.common.base.Preconditions;
 import com.mojang.serialization.MapCodec;
-import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.Identifier;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkMap;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.level.portal.TeleportTransition;
 import net.minecraft.world.level.storage.LevelData;
+import net.minecraft.world.level.storage.LevelResource;
 import net.minecraft.world.level.storage.LevelStorageSource;
 import net.minecraft.world.phys.Vec3;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.fantasy.mixin.MinecraftServerAccess;
+import xyz.nucleoid.fantasy.mixin.SectionStorageAccess;
 
-import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Fantasy is a library that allows for dimensions to be created and destroyed at runtime on the server.
@@ -37,6 +44,7 @@ import java.util.Set;
  * @see Fantasy#get(MinecraftServer)
  * @see Fantasy#openTemporaryWorld(RuntimeWorldConfig)
  * @see Fantasy#getOrOpenPersistentWorld(Identifier, RuntimeWorldConfig)
+ * @see Fantasy#openTemporaryWorldAsync(RuntimeWorldConfig)
  */
 public final class Fantasy {
     public static final Logger LOGGER = LogManager.getLogger(Fantasy.class);
@@ -45,15 +53,22 @@ public final class Fantasy {
     public static final ResourceKey<MapCodec<? extends ChunkGenerator>> VOID_CHUNK_GENERATOR = ResourceKey.create(Registries.CHUNK_GENERATOR, Identifier.fromNamespaceAndPath(Fantasy.ID, "void"));
     public static final ResourceKey<MapCodec<? extends ChunkGenerator>> TRANSIENT_CHUNK_GENERATOR = ResourceKey.create(Registries.CHUNK_GENERATOR, Identifier.fromNamespaceAndPath(Fantasy.ID, "transient"));
 
+    private static final String TRASH_DIRECTORY = "fantasy_trash";
+
     private static Fantasy instance;
 
     private final MinecraftServer server;
     private final MinecraftServerAccess serverAccess;
 
     private final RuntimeWorldManager worldManager;
+    private final FantasyIoWorker ioWorker;
 
-    private final Set<ServerLevel> deletionQueue = new ReferenceOpenHashSet<>();
-    private final Set<ServerLevel> unloadingQueue = new ReferenceOpenHashSet<>();
+    private final Map<ServerLevel, CompletableFuture<Void>> deletionQueue = new Reference2ObjectOpenHashMap<>();
+    private final Map<ServerLevel, WorldUnloader> unloadingQueue = new Reference2ObjectOpenHashMap<>();
+    private final Map<ServerLevel, WorldRestorer> restoringQueue = new Reference2ObjectOpenHashMap<>();
+    private final Map<ServerLevel, ChunkPregenerator> pregenerationQueue = new Reference2ObjectOpenHashMap<>();
+    private final Map<ResourceKey<Level>, CompletableFuture<RuntimeWorldHandle>> pendingPersistentWorlds = new Object2ObjectOpenHashMap<>();
+    private final List<RuntimeWorldPool> worldPools = new ArrayList<>();
 
     static {
         ServerTickEvents.START_SERVER_TICK.register(server -> {
@@ -61,6 +76,8 @@ public final class Fantasy {
             fantasy.tick();
         });
 
+        ServerLifecycleEvents.SERVER_STARTED.register(Fantasy::get);
+
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
             Fantasy fantasy = get(server);
             fantasy.onServerStopping();
@@ -71,7 +88,11 @@ public final class Fantasy {
         this.server = server;
         this.serverAccess = (MinecraftServerAccess) server;
 
-        this.worldManager = new RuntimeWorldManager(server);
+        Path trashDirectory = this.serverAccess.getStorageSource().getLevelPath(LevelResource.ROOT).resolve(TRASH_DIRECTORY).normalize();
+        this.ioWorker = new FantasyIoWorker(trashDirectory);
+        this.ioWorker.sweepTrash();
+
+        this.worldManager = new RuntimeWorldManager(server, this.ioWorker);
     }
 
     /**
@@ -91,14 +112,35 @@ public final class Fantasy {
     }
 
     private void tick() {
-        Set<ServerLevel> deletionQueue = this.deletionQueue;
+        Map<ServerLevel, CompletableFuture<Void>> deletionQueue = this.deletionQueue;
         if (!deletionQueue.isEmpty()) {
-            deletionQueue.removeIf(this::tickDeleteWorld);
+            deletionQueue.entrySet().removeIf(entry -> this.tickDeleteWorld(entry.getKey(), entry.getValue()));
         }
 
-        Set<ServerLevel> unloadingQueue = this.unloadingQueue;
+        Map<ServerLevel, WorldUnloader> unloadingQueue = this.unloadingQueue;
         if (!unloadingQueue.isEmpty()) {
-            unloadingQueue.removeIf(this::tickUnloadWorld);
+            unloadingQueue.values().removeIf(WorldUnloader::tick);
+        }
+
+        Map<ServerLevel, WorldRestorer> restoringQueue = this.restoringQueue;
+        if (!restoringQueue.isEmpty()) {
+            restoringQueue.values().removeIf(WorldRestorer::tick);
+        }
+
+        Map<ServerLevel, ChunkPregenerator> pregenerationQueue = this.pregenerationQueue;
+        if (!pregenerationQueue.isEmpty()) {
+            pregenerationQueue.values().removeIf(ChunkPregenerator::tick);
+        }
+
+        for (ServerLevel world : this.server.getAllLevels()) {
+            if (world instanceof RuntimeWorld runtimeWorld) {
+                runtimeWorld.tickHibernation();
+            }
+        }
+
+        List<RuntimeWorldPool> worldPools = this.worldPools;
+        for (int i = 0; i < worldPools.size(); i++) {
+            worldPools.get(i).tick();
         }
     }
 
@@ -159,8 +201,7 @@ public final class Fantasy {
         if (world == null) {
             world = this.addPersistentWorld(key, config, storageAccess);
         } else {
-            this.deletionQueue.remove(world);
-            this.unloadingQueue.remove(world);
+            this.cancelPendingRemoval(world);
         }
 
         return new RuntimeWorldHandle(this, world);
@@ -190,13 +231,105 @@ public final class Fantasy {
         if (world == null) {
             world = this.addPersistentWorld(key, config);
         } else {
-            this.deletionQueue.remove(world);
-            this.unloadingQueue.remove(world);
+            this.cancelPendingRemoval(world);
         }
 
         return new RuntimeWorldHandle(this, world);
     }
 
+    /**
+     * Creates a pool of pre-warmed temporary worlds which are constructed from the given {@link RuntimeWorldConfig}.
+     * <p>
+     * Worlds handed out by the pool behave exactly like worlds opened through
+     * {@link Fantasy#openTemporaryWorld(RuntimeWorldConfig)}, but skip the construction cost at the moment they are
+     * needed. The pool must be closed through {@link RuntimeWorldPool#close()} once it is no longer needed.
+     *
+     * @param template the config from which all pooled worlds are created
+     * @param settings the settings controlling the size of the pool
+     * @return the created pool
+     */
+    public RuntimeWorldPool createWorldPool(RuntimeWorldConfig template, RuntimeWorldPool.Settings settings) {
+        RuntimeWorldPool pool = new RuntimeWorldPool(this, this.server, template, settings);
+        this.worldPools.add(pool);
+        return pool;
+    }
+
+    /**
+     * Clones the stored files of a persistent world such that they can be opened as a new world through
+     * {@link Fantasy#getOrOpenPersistentWorld(Identifier, RuntimeWorldConfig)} with the target identifier.
+     * <p>
+     * Region files are hard linked where supported, so cloning takes the same time regardless of the size of the
+     * world. A region file is only copied once either world writes to it. If the source world is loaded, it is saved
+     * and all of its pending chunk, entity and point of interest writes are flushed before cloning.
+     *
+     * @param source the identifier of the persistent world to clone
+     * @param target the identifier of the new world
+     * @return a future completing once the world has been cloned
+     */
+    public CompletableFuture<Void> cloneWorld(Identifier source, Identifier target) {
+        LevelStorageSource.LevelStorageAccess storageAccess = this.serverAccess.getStorageSource();
+        Path sourceDirectory = storageAccess.getDimensionPath(ResourceKey.create(Registries.DIMENSION, source));
+        return this.cloneWorld(source, sourceDirectory, target);
+    }
+
+    /**
+     * Clones a world directory, such as one opened through a
+     * {@link xyz.nucleoid.fantasy.storage.SingleDimensionLevelStorageSource}, into the dimension directory of a new
+     * persistent world.
+     *
+     * @param sourceDirectory the dimension directory to clone
+     * @param target the identifier of the new world
+     * @return a future completing once the world has been cloned
+     * @see Fantasy#cloneWorld(Identifier, Identifier)
+     */
+    public CompletableFuture<Void> cloneWorld(Path sourceDirectory, Identifier target) {
+        return this.cloneWorld(null, sourceDirectory, target);
+    }
+
+    private CompletableFuture<Void> cloneWorld(@Nullable Identifier source, Path sourceDirectory, Identifier target) {
+        ResourceKey<Level> targetKey = ResourceKey.create(Registries.DIMENSION, target);
+        if (this.server.getLevel(targetKey) != null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("world " + target + " is already loaded"));
+        }
+
+        CompletableFuture<?> flushed = CompletableFuture.completedFuture(null);
+        if (source != null) {
+            ServerLevel sourceWorld = this.server.getLevel(ResourceKey.create(Registries.DIMENSION, source));
+            if (sourceWorld != null) {
+                // writes out the chunks and entities, but point of interest writes are still only queued after this
+                sourceWorld.save(null, true, false);
+                ChunkMap chunkMap = sourceWorld.getChunkSource().chunkMap;
+                flushed = CompletableFuture.allOf(
+                        chunkMap.synchronize(true),
+                        ((SectionStorageAccess) chunkMap.getPoiManager()).getSimpleRegionStorage().synchronize(true)
+                );
+            }
+        }
+
+        Path targetDirectory = this.serverAccess.getStorageSource().getDimensionPath(targetKey);
+        return this.ioWorker.cloneWorldDirectory(flushed, sourceDirectory, targetDirectory)
+                .thenApplyAsync(Function.identity(), this.server);
+    }
+
+    void removeWorldPool(RuntimeWorldPool pool) {
+        this.worldPools.remove(pool);
+    }
+
+    /**
+     * Switches the per-world tick profiler on or off for all runtime worlds. While enabled, every runtime world keeps
+     * the times of its last ticks split up by {@link TickPhase}, which can be read through
+     * {@link RuntimeWorldHandle#getTickProfile()}.
+     *
+     * @param enabled whether runtime worlds should be profiled
+     */
+    public void setTickProfilingEnabled(boolean enabled) {
+        WorldTickProfiler.setEnabled(enabled);
+    }
+
+    public boolean isTickProfilingEnabled() {
+        return WorldTickProfiler.isEnabled();
+    }
+
     private RuntimeWorld addPersistentWorld(Identifier key, RuntimeWorldConfig config) {
         ResourceKey<Level> worldKey = ResourceKey.create(Registries.DIMENSION, key);
         return this.worldManager.add(worldKey, config, RuntimeWorld.Style.PERSISTENT);
@@ -209,57 +342,240 @@ public final class Fantasy {
 
     private RuntimeWorld addTemporaryWorld(Identifier key, RuntimeWorldConfig config) {
         ResourceKey<Level> worldKey = ResourceKey.create(Registries.DIMENSION, key);
+        return this.worldManager.add(worldKey, config, RuntimeWorld.Style.TEMPORARY);
+    }
 
-        try {
-            LevelStorageSource.LevelStorageAccess session = this.serverAccess.getStorageSource();
-            FileUtils.forceDeleteOnExit(session.getDimensionPath(worldKey).toFile());
-        } catch (IOException ignored) {
+    /**
+     * Creates several new temporary worlds at once, one for each given {@link RuntimeWorldConfig}.
+     * <p>
+     * This is considerably cheaper than opening each world through {@link Fantasy#openTemporaryWorld(RuntimeWorldConfig)},
+     * as all dimensions are registered together and the preparation of the worlds runs in parallel.
+     *
+     * @param configs the configs with which to construct the temporary worlds
+     * @return the created worlds, in the same order as the given configs
+     */
+    public List<RuntimeWorldHandle> openTemporaryWorlds(List<RuntimeWorldConfig> configs) {
+        List<ResourceKey<Level>> worldKeys = new ArrayList<>(configs.size());
+        for (int i = 0; i < configs.size(); i++) {
+            worldKeys.add(ResourceKey.create(Registries.DIMENSION, generateTemporaryWorldKey()));
         }
 
-        return this.worldManager.add(worldKey, config, RuntimeWorld.Style.TEMPORARY);
+        List<RuntimeWorld> worlds = this.worldManager.addAll(worldKeys, configs, RuntimeWorld.Style.TEMPORARY);
+
+        List<RuntimeWorldHandle> handles = new ArrayList<>(worlds.size());
+        for (RuntimeWorld world : worlds) {
+            handles.add(new RuntimeWorldHandle(this, world));
+        }
+        return handles;
+    }
+
+    /**
+     * Creates a new temporary world with the given {@link RuntimeWorldConfig} that will not be saved and will be
+     * deleted when the server exits.
+     * <p>
+     * Unlike {@link Fantasy#openTemporaryWorld(RuntimeWorldConfig)}, only the registry insertion and the publishing of the
+     * world to the server happen on the server thread. Everything else, including loading the chunks around the world
+     * origin, is done in the background. The returned future completes on the server thread once players can safely be
+     * teleported into the world.
+     *
+     * @param config the config with which to construct this temporary world
+     * @return a future providing the created world
+     */
+    public CompletableFuture<RuntimeWorldHandle> openTemporaryWorldAsync(RuntimeWorldConfig config) {
+        return this.openTemporaryWorldAsync(generateTemporaryWorldKey(), config);
+    }
+
+    /**
+     * Creates a new temporary world with the given identifier and {@link RuntimeWorldConfig} that will not be saved and
+     * will be deleted when the server exits.
+     * <p>
+     * Unlike {@link Fantasy#openTemporaryWorld(Identifier, RuntimeWorldConfig)}, only the registry insertion and the
+     * publishing of the world to the server happen on the server thread. The returned future completes on the server
+     * thread once players can safely be teleported into the world.
+     *
+     * @param key the unique identifier for this dimension
+     * @param config the config with which to construct this temporary world
+     * @return a future providing the created world
+     */
+    public CompletableFuture<RuntimeWorldHandle> openTemporaryWorldAsync(Identifier key, RuntimeWorldConfig config) {
+        ResourceKey<Level> worldKey = ResourceKey.create(Registries.DIMENSION, key);
+        return this.worldManager.addAsync(worldKey, config, RuntimeWorld.Style.TEMPORARY)
+                .thenApply(world -> new RuntimeWorldHandle(this, world));
+    }
+
+    /**
+     * Gets or asynchronously creates a new persistent world with the given identifier and {@link RuntimeWorldConfig}.
+     * <p>
+     * If a world with this identifier exists already or is currently being opened, no new world will be constructed.
+     *
+     * @param key the unique identifier for this dimension
+     * @param config the config with which to construct this persistent world
+     * @return a future providing the created world
+     * @see Fantasy#getOrOpenPersistentWorld(Identifier, RuntimeWorldConfig)
+     * @see Fantasy#openTemporaryWorldAsync(Identifier, RuntimeWorldConfig)
+     */
+    public CompletableFuture<RuntimeWorldHandle> getOrOpenPersistentWorldAsync(Identifier key, RuntimeWorldConfig config) {
+        return this.getOrOpenPersistentWorldAsync(key, config, this.serverAccess.getStorageSource());
+    }
+
+    /**
+     * Gets or asynchronously creates a new persistent world with the given identifier and {@link RuntimeWorldConfig}.
+     * <p>
+     * If a world with this identifier exists already or is currently being opened, no new world will be constructed.
+     *
+     * @param key the unique identifier for this dimension
+     * @param config the config with which to construct this persistent world
+     * @param storageAccess the storage access to save the world to
+     * @return a future providing the created world
+     * @see Fantasy#getOrOpenPersistentWorld(Identifier, RuntimeWorldConfig, LevelStorageSource.LevelStorageAccess)
+     */
+    public CompletableFuture<RuntimeWorldHandle> getOrOpenPersistentWorldAsync(Identifier key, RuntimeWorldConfig config, LevelStorageSource.LevelStorageAccess storageAccess) {
+        ResourceKey<Level> worldKey = ResourceKey.create(Registries.DIMENSION, key);
+
+        ServerLevel world = this.server.getLevel(worldKey);
+        if (world != null) {
+            this.cancelPendingRemoval(world);
+            return CompletableFuture.completedFuture(new RuntimeWorldHandle(this, world));
+        }
+
+        CompletableFuture<RuntimeWorldHandle> pending = this.pendingPersistentWorlds.get(worldKey);
+        if (pending != null) {
+            return pending;
+        }
+
+        CompletableFuture<RuntimeWorldHandle> future = this.worldManager.addAsync(worldKey, config, storageAccess, RuntimeWorld.Style.PERSISTENT)
+                .thenApply(created -> new RuntimeWorldHandle(this, created));
+
+        this.pendingPersistentWorlds.put(worldKey, future);
+        // the future fails on a background thread if preparing the world fails
+        future.whenCompleteAsync((handle, throwable) -> this.pendingPersistentWorlds.remove(worldKey, future), this.server);
+
+        return future;
     }
 
-    void enqueueWorldDeletion(ServerLevel world) {
+    CompletableFuture<Void> enqueueWorldDeletion(ServerLevel world) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
         this.server.execute(() -> {
+            // the unloader would otherwise keep ticking and saving the world while it is being deleted
+            this.abortUnloading(world);
             world.getChunkSource().deactivateTicketsOnClosing();
             world.noSave = true;
             this.kickPlayers(world);
-            this.deletionQueue.add(world);
+
+            CompletableFuture<Void> existing = this.deletionQueue.putIfAbsent(world, future);
+            if (existing != null) {
+                existing.whenComplete((result, throwable) -> complete(future, throwable));
+            }
         });
+        return future;
     }
 
-    void enqueueWorldUnloading(ServerLevel world) {
+    private void cancelPendingRemoval(ServerLevel world) {
+        CompletableFuture<Void> deletion = this.deletionQueue.remove(world);
+        if (deletion != null) {
+            deletion.cancel(false);
+        }
+        WorldUnloader unloader = this.unloadingQueue.remove(world);
+        if (unloader != null) {
+            unloader.cancel();
+        }
+    }
+
+    CompletableFuture<Void> enqueueWorldUnloading(ServerLevel world) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
         this.server.execute(() -> {
-            world.noSave = false;
-            world.getChunkSource().deactivateTicketsOnClosing();
-            world.getChunkSource().tick(() -> true, false);
-            this.kickPlayers(world);
-            this.unloadingQueue.add(world);
+            this.cancelBackgroundWork(world);
+            WorldUnloader unloader = this.unloadingQueue.computeIfAbsent(world, w -> new WorldUnloader(this, this.server, this.worldManager, w));
+            unloader.getFuture().whenComplete((result, throwable) -> complete(future, throwable));
         });
+        return future;
+    }
+
+    CompletableFuture<Void> enqueueWorldRestore(RuntimeWorld world, WorldSnapshot snapshot) {
+        WorldRestorer restorer = new WorldRestorer(world, snapshot);
+        this.server.execute(() -> {
+            WorldRestorer previous = this.restoringQueue.put(world, restorer);
+            if (previous != null) {
+                previous.cancel();
+            }
+        });
+        return restorer.getFuture();
+    }
+
+    CompletableFuture<PregenerationProgress> enqueuePregeneration(RuntimeWorld world, ChunkPos center, int radius, PregenerationOptions options) {
+        ChunkPregenerator pregenerator = new ChunkPregenerator(world, this.ioWorker, center, radius, options);
+        ChunkPregenerator previous = this.pregenerationQueue.put(world, pregenerator);
+        if (previous != null) {
+            previous.cancel();
+        }
+        return pregenerator.getFuture();
+    }
+
+    @Nullable
+    PregenerationProgress getPregenerationProgress(ServerLevel world) {
+        ChunkPregenerator pregenerator = this.pregenerationQueue.get(world);
+        return pregenerator != null ? pregenerator.getProgress() : null;
+    }
+
+    private void cancelBackgroundWork(ServerLevel world) {
+        WorldRestorer restorer = this.restoringQueue.remove(world);
+        if (restorer != null) {
+            restorer.cancel();
+        }
+
+        ChunkPregenerator pregenerator = this.pregenerationQueue.remove(world);
+        if (pregenerator != null) {
+            pregenerator.cancel();
+        }
+    }
+
+    private void abortUnloading(ServerLevel world) {
+        WorldUnloader unloader = this.unloadingQueue.remove(world);
+        if (unloader != null) {
+            unloader.abort();
+        }
+    }
+
+    UnloadStage getUnloadStage(ServerLevel world) {
+        WorldUnloader unloader = this.unloadingQueue.get(world);
+        return unloader != null ? unloader.getStage() : UnloadStage.NONE;
+    }
+
+    float getUnloadProgress(ServerLevel world) {
+        WorldUnloader unloader = this.unloadingQueue.get(world);
+        return unloader != null ? unloader.getProgress() : 0.0F;
     }
 
     public boolean tickDeleteWorld(ServerLevel world) {
-        //if (this.isWorldActive(world)) {
+        return this.tickDeleteWorld(world, new CompletableFuture<>());
+    }
+
+    private boolean tickDeleteWorld(ServerLevel world, CompletableFuture<Void> future) {
+        this.cancelBackgroundWork(world);
+        this.abortUnloading(world);
         this.kickPlayers(world);
-        this.worldManager.delete(world);
+        this.worldManager.delete(world).whenComplete((result, throwable) -> complete(future, throwable));
         return true;
-        //} else {
-        //    this.kickPlayers(world);
-        //    return false;
-        //}
+    }
+
+    private static void complete(CompletableFuture<Void> future, Throwable throwable) {
+        if (throwable != null) {
+            future.completeExceptionally(throwable);
+        } else {
+            future.complete(null);
+        }
     }
 
     public boolean tickUnloadWorld(ServerLevel world) {
-        if (this.isWorldActive(world) && !world.getChunkSource().chunkMap.hasWork()) {
-            this.worldManager.unload(world);
+        WorldUnloader unloader = this.unloadingQueue.computeIfAbsent(world, w -> new WorldUnloader(this, this.server, this.worldManager, w));
+        if (unloader.tick()) {
+            this.unloadingQueue.remove(world);
             return true;
-        } else {
-            this.kickPlayers(world);
-            return false;
         }
+        return false;
     }
 
-    private void kickPlayers(ServerLevel world) {
+    void kickPlayers(ServerLevel world) {
         if (world.players().isEmpty()) {
             return;
         }
@@ -277,16 +593,25 @@ public final class Fantasy {
         }
     }
 
-    private boolean isWorldActive(ServerLevel world) {
-        return world.players().isEmpty() && world.getChunkSource().getLoadedChunksCount() <= 0;
-    }
-
     private void onServerStopping() {
+        for (ChunkPregenerator pregenerator : this.pregenerationQueue.values()) {
+            pregenerator.cancel();
+        }
+        this.pregenerationQueue.clear();
+
+        for (RuntimeWorldPool pool : new ArrayList<>(this.worldPools)) {
+            pool.close();
+        }
+
         List<RuntimeWorld> temporaryWorlds = this.collectTemporaryWorlds();
         for (RuntimeWorld temporary : temporaryWorlds) {
             this.kickPlayers(temporary);
             this.worldManager.delete(temporary);
         }
+
+        ((FantasyServerAccess) this.server).fantasy$getWorldTicker().close();
+        // waits for the directories of deleted worlds to be moved into the trash
+        this.ioWorker.close();
     }
 
     private List<RuntimeWorld> collectTemporaryWorlds() {
@@ -0,0 +1,95 @@
+package xyz.nucleoid.fantasy;
+
+import com.mojang.brigadier.CommandDispatcher;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.DimensionArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import static net.minecraft.commands.Commands.argument;
+import static net.minecraft.commands.Commands.literal;
+
+final class FantasyCommand {
+    private static final int LISTED_WORLDS = 10;
+
+    static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(literal("fantasy")
+                .requires(Commands.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(literal("profile")
+                        .executes(context -> listSlowestWorlds(context.getSource()))
+                        .then(literal("on").executes(context -> setProfilingEnabled(context.getSource(), true)))
+                        .then(literal("off").executes(context -> setProfilingEnabled(context.getSource(), false)))
+                        .then(argument("world", DimensionArgument.dimension())
+                                .executes(context -> showWorld(context.getSource(), DimensionArgument.getDimension(context, "world")))
+                        )
+                )
+        );
+    }
+
+    private static int setProfilingEnabled(CommandSourceStack source, boolean enabled) {
+        Fantasy.get(source.getServer()).setTickProfilingEnabled(enabled);
+        source.sendSuccess(() -> Component.literal("Tick profiling " + (enabled ? "enabled" : "disabled")), true);
+        return 1;
+    }
+
+    private static int listSlowestWorlds(CommandSourceStack source) {
+        if (!WorldTickProfiler.isEnabled()) {
+            source.sendFailure(Component.literal("Tick profiling is disabled, enable it with /fantasy profile on"));
+            return 0;
+        }
+
+        List<RuntimeWorld> worlds = new ArrayList<>();
+        for (ServerLevel world : source.getServer().getAllLevels()) {
+            if (world instanceof RuntimeWorld runtimeWorld) {
+                worlds.add(runtimeWorld);
+            }
+        }
+        worlds.sort(Comparator.comparingLong((RuntimeWorld world) -> world.getTickProfile().get(TickPhase.TOTAL).p99()).reversed());
+
+        source.sendSuccess(() -> Component.literal("Slowest of " + worlds.size() + " runtime worlds by p99 tick time:"), false);
+        for (RuntimeWorld world : worlds.subList(0, Math.min(worlds.size(), LISTED_WORLDS))) {
+            TickProfile profile = world.getTickProfile();
+            String line = world.dimension().identifier() + ": " + formatStats(profile.get(TickPhase.TOTAL))
+                    + " (overhead " + formatMillis(profile.getOverheadNanos()) + ")";
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+
+        return worlds.size();
+    }
+
+    private static int showWorld(CommandSourceStack source, ServerLevel world) {
+        if (!(world instanceof RuntimeWorld runtimeWorld)) {
+            source.sendFailure(Component.literal(world.dimension().identifier() + " is not a runtime world"));
+            return 0;
+        }
+
+        TickProfile profile = runtimeWorld.getTickProfile();
+        if (profile.getSampleCount() == 0) {
+            source.sendFailure(Component.literal("No ticks have been profiled for " + world.dimension().identifier()));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.literal(world.dimension().identifier() + " over " + profile.getSampleCount() + " ticks:"), false);
+        for (TickPhase phase : TickPhase.values()) {
+            String line = phase.name().toLowerCase(Locale.ROOT) + ": " + formatStats(profile.get(phase));
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+        source.sendSuccess(() -> Component.literal("profiler overhead: " + formatMillis(profile.getOverheadNanos())), false);
+
+        return 1;
+    }
+
+    private static String formatStats(TickProfile.Stats stats) {
+        return "p50 " + formatMillis(stats.p50()) + ", p99 " + formatMillis(stats.p99()) + ", max " + formatMillis(stats.max());
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000.0);
+    }
+}
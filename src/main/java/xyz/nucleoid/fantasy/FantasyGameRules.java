@@ -0,0 +1,21 @@
+package xyz.nucleoid.fantasy;
+
+import net.minecraft.world.level.gamerules.GameRules;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.fantasy.util.GameRuleStore;
+
+@ApiStatus.Internal
+public interface FantasyGameRules {
+    /**
+     * Makes these rules read and write all rules through the given overrides, and read every rule which is not set in
+     * them from the given shared rules, which are never written to.
+     */
+    void fantasy$setBase(GameRules base, GameRuleStore overrides);
+
+    /**
+     * @return the rules set in these rules, or {@code null} if they are not layered on top of shared rules
+     */
+    @Nullable
+    GameRuleStore fantasy$getOverrides();
+}
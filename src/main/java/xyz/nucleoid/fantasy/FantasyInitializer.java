@@ -1,6 +1,7 @@
 package xyz.nucleoid.fantasy;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.minecraft.core.Registry;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.Identifier;
@@ -12,5 +13,8 @@ public final class FantasyInitializer implements ModInitializer {
     public void onInitialize() {
         Registry.register(BuiltInRegistries.CHUNK_GENERATOR, Fantasy.VOID_CHUNK_GENERATOR, VoidChunkGenerator.CODEC);
         Registry.register(BuiltInRegistries.CHUNK_GENERATOR, Fantasy.TRANSIENT_CHUNK_GENERATOR, TransientChunkGenerator.CODEC);
+        Registry.register(BuiltInRegistries.TICKET_TYPE, Identifier.fromNamespaceAndPath(Fantasy.ID, "chunk_request"), RuntimeWorld.CHUNK_REQUEST_TICKET);
+
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> FantasyCommand.register(dispatcher));
     }
 }
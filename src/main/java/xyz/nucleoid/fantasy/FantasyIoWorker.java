@@ -0,0 +1,207 @@
+package xyz.nucleoid.fantasy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.server.level.ChunkMap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.entity.EntityPersistentStorage;
+import org.apache.commons.io.FileUtils;
+import xyz.nucleoid.fantasy.jfr.DirectoryPurgeEvent;
+import xyz.nucleoid.fantasy.mixin.PersistentEntitySectionManagerAccess;
+import xyz.nucleoid.fantasy.mixin.ServerLevelAccess;
+import xyz.nucleoid.fantasy.storage.WorldDirectoryCloner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A single background thread on which Fantasy performs all of its file system work, such that slow disk operations
+ * never block the server thread.
+ * <p>
+ * World directories are deleted by first atomically moving them into a trash directory owned by Fantasy, and then
+ * purging that trash. Anything left in the trash after a crash is purged when the next server starts.
+ */
+final class FantasyIoWorker {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final Path trashDirectory;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("Fantasy IO Worker")
+                    .setDaemon(true)
+                    .build()
+    );
+
+    // operations which still wait on chunk storage before they are submitted to the executor
+    private final Set<CompletableFuture<?>> pendingOperations = ConcurrentHashMap.newKeySet();
+
+    FantasyIoWorker(Path trashDirectory) {
+        this.trashDirectory = trashDirectory;
+    }
+
+    CompletableFuture<Void> submit(Runnable task) {
+        return CompletableFuture.runAsync(task, this.executor);
+    }
+
+    /**
+     * Waits for all pending chunk writes of the given world to finish, closes its storage, and then deletes the given
+     * world directory.
+     */
+    CompletableFuture<Void> deleteWorldDirectory(ServerLevel world, Path directory) {
+        return this.track(this.flushAndClose(world).thenRunAsync(() -> this.deleteDirectory(directory), this.executor));
+    }
+
+    /**
+     * Waits for all pending chunk writes of the given world to finish and closes its chunk and entity storage, which
+     * also releases everything the storage holds on to beyond the world itself.
+     */
+    CompletableFuture<Void> closeWorldStorage(ServerLevel world) {
+        return this.track(this.flushAndClose(world));
+    }
+
+    private CompletableFuture<Void> flushAndClose(ServerLevel world) {
+        ChunkMap chunkMap = world.getChunkSource().chunkMap;
+        EntityPersistentStorage<?> entityStorage = ((PersistentEntitySectionManagerAccess) ((ServerLevelAccess) world).getEntityManager()).getPermanentStorage();
+        return chunkMap.synchronize(true)
+                .exceptionally(throwable -> {
+                    Fantasy.LOGGER.warn("Failed to flush chunk storage of removed world", throwable);
+                    return null;
+                })
+                .thenRunAsync(() -> {
+                    try {
+                        chunkMap.close();
+                    } catch (IOException e) {
+                        Fantasy.LOGGER.warn("Failed to close chunk storage of removed world", e);
+                    }
+
+                    // closing waits for pending entity writes, and releases any template the storage reads from
+                    try {
+                        entityStorage.close();
+                    } catch (IOException e) {
+                        Fantasy.LOGGER.warn("Failed to close entity storage of removed world", e);
+                    }
+                }, this.executor);
+    }
+
+    /**
+     * Waits for the given storage flush to finish and then clones the given world directory.
+     *
+     * @see WorldDirectoryCloner
+     */
+    CompletableFuture<Void> cloneWorldDirectory(CompletableFuture<?> flushed, Path source, Path target) {
+        return this.track(flushed.thenRunAsync(() -> {
+            long startTime = System.nanoTime();
+            try {
+                int linked = WorldDirectoryCloner.cloneDirectory(source, target);
+                Fantasy.LOGGER.debug("Cloned world directory {} to {} in {} ms, linking {} region files", source, target, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), linked);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to clone world directory " + source, e);
+            }
+        }, this.executor));
+    }
+
+    /**
+     * Deletes everything left over in the trash directory, for example after the server crashed mid-purge.
+     */
+    CompletableFuture<Void> sweepTrash() {
+        return this.submit(() -> {
+            if (!Files.isDirectory(this.trashDirectory)) {
+                return;
+            }
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.trashDirectory)) {
+                for (Path entry : entries) {
+                    purge(entry);
+                }
+            } catch (IOException e) {
+                Fantasy.LOGGER.warn("Failed to sweep Fantasy trash directory", e);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        this.pendingOperations.add(future);
+        future.whenComplete((result, throwable) -> this.pendingOperations.remove(future));
+        return future;
+    }
+
+    /**
+     * Finishes all pending operations, including those still waiting for chunk storage to be flushed, and stops the
+     * worker.
+     */
+    void close() {
+        try {
+            CompletableFuture.allOf(this.pendingOperations.toArray(new CompletableFuture<?>[0]))
+                    .get(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // failures are logged by the operations themselves
+        } catch (TimeoutException e) {
+            Fantasy.LOGGER.warn("Timed out waiting for pending Fantasy IO operations to finish");
+        }
+
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Fantasy.LOGGER.warn("Timed out waiting for Fantasy IO worker to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+
+        Path trashed;
+        try {
+            Files.createDirectories(this.trashDirectory);
+            trashed = this.trashDirectory.resolve(directory.getFileName() + "-" + UUID.randomUUID());
+            Files.move(directory, trashed, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // the world directory lives on another file store, so delete it where it is
+            trashed = directory;
+        } catch (IOException e) {
+            Fantasy.LOGGER.warn("Failed to move world directory {} to trash", directory, e);
+            trashed = directory;
+        }
+
+        purge(trashed);
+    }
+
+    private static void purge(Path path) {
+        DirectoryPurgeEvent event = new DirectoryPurgeEvent();
+        event.begin();
+        try {
+            FileUtils.deleteDirectory(path.toFile());
+            event.success = true;
+        } catch (IOException e) {
+            Fantasy.LOGGER.warn("Failed to delete world directory", e);
+            try {
+                FileUtils.forceDeleteOnExit(path.toFile());
+            } catch (IOException ignored) {
+            }
+        } finally {
+            if (event.shouldCommit()) {
+                event.path = path.toString();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package xyz.nucleoid.fantasy;
+
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+public interface FantasyServerAccess {
+    void fantasy$invalidateLevelSnapshot();
+
+    ParallelWorldTicker fantasy$getWorldTicker();
+}
@@ -6,5 +6,11 @@ import org.jetbrains.annotations.ApiStatus;
 public interface FantasyWorldAccess {
     void fantasy$setTickWhenEmpty(boolean tickWhenEmpty);
 
+    boolean fantasy$getTickWhenEmpty();
+
     boolean fantasy$shouldTick();
+
+    void fantasy$setDormant(boolean dormant);
+
+    boolean fantasy$isDormant();
 }
@@ -0,0 +1,192 @@
+package xyz.nucleoid.fantasy;
+
+import net.minecraft.CrashReport;
+import net.minecraft.ReportedException;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Ticks isolated runtime worlds concurrently with each other on a fork-join pool.
+ * <p>
+ * All isolated worlds are forked right before the server ticks its other worlds, and the server thread waits for them
+ * at the merge point before it ticks any other world. The server thread therefore never touches a world while it is
+ * being ticked on the pool. Work which must not run concurrently with other worlds, such as cross-dimensional
+ * teleports or broadcasts to every player, is queued while ticking and run on the server thread at the merge point.
+ * <p>
+ * Anything called from within the tick of an isolated world runs on a pool thread, including Fabric's
+ * {@code START_WORLD_TICK} and {@code END_WORLD_TICK} listeners.
+ *
+ * @see RuntimeWorldConfig#setIsolated(boolean)
+ * @see RuntimeWorld#runAtMergePoint(Runnable)
+ */
+@ApiStatus.Internal
+public final class ParallelWorldTicker {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    // set for whichever thread runs a tick task, which may also be the server thread if it joins a task before any
+    // worker has picked it up
+    private static final ThreadLocal<TickTask> CURRENT_TASK = new ThreadLocal<>();
+
+    private final AtomicInteger threadId = new AtomicInteger();
+
+    @Nullable
+    private ForkJoinPool pool;
+    private final List<TickTask> tasks = new ArrayList<>();
+    private final Queue<Runnable> mergeTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Ticks all given worlds on the pool and waits for them at the merge point.
+     *
+     * @param worlds the isolated worlds to tick
+     * @param haveTime the time check passed to the world ticks
+     * @throws ReportedException if any of the worlds failed to tick
+     */
+    public void tickAll(RuntimeWorld[] worlds, BooleanSupplier haveTime) {
+        if (worlds.length == 0) {
+            return;
+        }
+
+        ForkJoinPool pool = this.getPool();
+        for (RuntimeWorld world : worlds) {
+            TickTask task = new TickTask(world, haveTime);
+            task.handle = pool.submit(task);
+            this.tasks.add(task);
+        }
+        this.join();
+    }
+
+    /**
+     * Waits for all submitted worlds to finish ticking and then runs all tasks deferred to the merge point. Does
+     * nothing if no world has been submitted.
+     *
+     * @throws ReportedException if any of the worlds failed to tick
+     */
+    private void join() {
+        List<TickTask> tasks = this.tasks;
+        if (tasks.isEmpty() && this.mergeTasks.isEmpty()) {
+            return;
+        }
+
+        TickTask failed = null;
+        for (int i = 0; i < tasks.size(); i++) {
+            TickTask task = tasks.get(i);
+            task.handle.quietlyJoin();
+            if (task.failure != null && failed == null) {
+                failed = task;
+            }
+        }
+        tasks.clear();
+
+        Runnable mergeTask;
+        while ((mergeTask = this.mergeTasks.poll()) != null) {
+            mergeTask.run();
+        }
+
+        if (failed != null) {
+            CrashReport report = CrashReport.forThrowable(failed.failure, "Exception ticking world");
+            failed.world.fillReportDetails(report);
+            throw new ReportedException(report);
+        }
+    }
+
+    public void close() {
+        ForkJoinPool pool = this.pool;
+        if (pool == null) {
+            return;
+        }
+
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Fantasy.LOGGER.warn("Timed out waiting for Fantasy world tick threads to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.pool = null;
+    }
+
+    private ForkJoinPool getPool() {
+        ForkJoinPool pool = this.pool;
+        if (pool == null) {
+            int parallelism = Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+            this.pool = pool = new ForkJoinPool(parallelism, TickThread::new, null, false);
+        }
+        return pool;
+    }
+
+    /**
+     * @return whether the current thread is ticking the given world in parallel to the server thread
+     */
+    public static boolean isTickThreadFor(Level world) {
+        TickTask task = CURRENT_TASK.get();
+        return task != null && task.world == world;
+    }
+
+    /**
+     * Queues the given task to run on the server thread at the merge point if the current thread is ticking an
+     * isolated world.
+     *
+     * @return whether the task has been deferred, otherwise it should be run right away
+     */
+    public static boolean deferToMergePoint(Runnable task) {
+        TickTask current = CURRENT_TASK.get();
+        if (current != null) {
+            current.getTicker().mergeTasks.add(task);
+            return true;
+        }
+        return false;
+    }
+
+    private final class TickTask implements Runnable {
+        final RuntimeWorld world;
+        final BooleanSupplier haveTime;
+
+        ForkJoinTask<?> handle;
+        volatile Throwable failure;
+
+        TickTask(RuntimeWorld world, BooleanSupplier haveTime) {
+            this.world = world;
+            this.haveTime = haveTime;
+        }
+
+        @Override
+        public void run() {
+            // the task may run on the server thread if it gets joined before a worker picks it up, in which case work
+            // must still be deferred to the merge point while other worlds are ticking
+            TickTask previous = CURRENT_TASK.get();
+            CURRENT_TASK.set(this);
+            try {
+                this.world.runTick(() -> this.world.tick(this.haveTime));
+            } catch (Throwable t) {
+                this.failure = t;
+            } finally {
+                CURRENT_TASK.set(previous);
+            }
+        }
+
+        ParallelWorldTicker getTicker() {
+            return ParallelWorldTicker.this;
+        }
+    }
+
+    private final class TickThread extends ForkJoinWorkerThread {
+        TickThread(ForkJoinPool pool) {
+            super(pool);
+            this.setName("Fantasy World Ticker #" + ParallelWorldTicker.this.threadId.incrementAndGet());
+            this.setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package xyz.nucleoid.fantasy;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * Options controlling how fast {@link RuntimeWorldHandle#pregenerate} generates chunks.
+ */
+public final class PregenerationOptions {
+    private int maxConcurrency = 16;
+    private float targetMspt = 40.0F;
+    private boolean resumable = true;
+    private int progressInterval = 20;
+    @Nullable
+    private Consumer<PregenerationProgress> progressListener;
+
+    /**
+     * Sets how many chunks may be generating at the same time
+     *
+     * @param maxConcurrency The maximum amount of chunks in flight
+     *
+     * @return The same instance of PregenerationOptions
+     */
+    public PregenerationOptions setMaxConcurrency(int maxConcurrency) {
+        Preconditions.checkArgument(maxConcurrency > 0, "max concurrency must be positive");
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets the average server tick time above which the generation backs off, and below which it speeds up again
+     *
+     * @param targetMspt The target milliseconds per tick
+     *
+     * @return The same instance of PregenerationOptions
+     */
+    public PregenerationOptions setTargetMspt(float targetMspt) {
+        Preconditions.checkArgument(targetMspt > 0.0F, "target mspt must be positive");
+        this.targetMspt = targetMspt;
+        return this;
+    }
+
+    /**
+     * Defines if the generation should store how far it got in the world directory, such that starting it again with
+     * the same center and radius after an unload or restart continues where it stopped
+     *
+     * @param resumable Whenever the generation can be resumed
+     *
+     * @return The same instance of PregenerationOptions
+     */
+    public PregenerationOptions setResumable(boolean resumable) {
+        this.resumable = resumable;
+        return this;
+    }
+
+    /**
+     * Sets a listener which is called on the server thread with the current progress
+     *
+     * @param progressInterval How many ticks to wait between two calls
+     * @param progressListener The listener to call
+     *
+     * @return The same instance of PregenerationOptions
+     */
+    public PregenerationOptions setProgressListener(int progressInterval, @Nullable Consumer<PregenerationProgress> progressListener) {
+        Preconditions.checkArgument(progressInterval > 0, "progress interval must be positive");
+        this.progressInterval = progressInterval;
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public int getMaxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    public float getTargetMspt() {
+        return this.targetMspt;
+    }
+
+    public boolean isResumable() {
+        return this.resumable;
+    }
+
+    public int getProgressInterval() {
+        return this.progressInterval;
+    }
+
+    @Nullable
+    public Consumer<PregenerationProgress> getProgressListener() {
+        return this.progressListener;
+    }
+}
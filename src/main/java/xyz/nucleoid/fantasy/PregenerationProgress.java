@@ -0,0 +1,27 @@
+package xyz.nucleoid.fantasy;
+
+/**
+ * The progress of a chunk pre-generation started through {@link RuntimeWorldHandle#pregenerate}.
+ *
+ * @param completedChunks how many chunks of the area have been generated, including those of previous runs
+ * @param totalChunks how many chunks the area contains
+ * @param generatedChunks how many chunks have been generated by this run
+ * @param elapsedNanos how long this run has been going
+ * @param concurrency how many chunks are currently allowed to generate at the same time
+ * @param peakInFlight the most chunks this run has had generating at the same time
+ */
+public record PregenerationProgress(long completedChunks, long totalChunks, long generatedChunks, long elapsedNanos, int concurrency, int peakInFlight) {
+    /**
+     * @return the fraction of the area that has been generated
+     */
+    public float getFraction() {
+        return this.totalChunks > 0 ? (float) this.completedChunks / this.totalChunks : 1.0F;
+    }
+
+    /**
+     * @return how many chunks this run has generated per second on average
+     */
+    public double getChunksPerSecond() {
+        return this.elapsedNanos > 0 ? this.generatedChunks * 1_000_000_000.0 / this.elapsedNanos : 0.0;
+    }
+}
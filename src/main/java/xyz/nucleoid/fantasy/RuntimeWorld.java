@@ -1,35 +1,83 @@
 package xyz.nucleoid.fantasy;
 
 import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkResult;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
 import net.minecraft.util.ProgressListener;
 import net.minecraft.util.Util;
 import net.minecraft.world.RandomSequences;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.CustomSpawner;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.biome.BiomeManager;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
 import net.minecraft.world.level.dimension.LevelStem;
 import net.minecraft.world.level.gamerules.GameRules;
 import net.minecraft.world.level.storage.LevelStorageSource;
 import net.minecraft.world.level.storage.ServerLevelData;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.fantasy.jfr.WorldTickEvent;
 import xyz.nucleoid.fantasy.mixin.MinecraftServerAccess;
+import xyz.nucleoid.fantasy.mixin.ServerChunkCacheAccess;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RuntimeWorld extends ServerLevel {
+    private static final int TICK_TIME_SAMPLES = 100;
+
+    /**
+     * Keeps a chunk loaded while it is requested through {@link RuntimeWorld#requestChunk(int, int)}
+     */
+    static final TicketType CHUNK_REQUEST_TICKET = new TicketType(TicketType.NO_TIMEOUT, TicketType.FLAG_LOADING);
+
     final Style style;
     private boolean flat;
+    @Nullable
+    private final ChunkResetTracker resetTracker;
+    private final boolean isolated;
+    private final int tickInterval;
+    private final TickPriority tickPriority;
+    private final int tickOffset;
+    @Nullable
+    private final WorldHibernator hibernator;
+    @Nullable
+    private WorldTickProfiler tickProfiler;
+    private final Path dimensionPath;
+    @Nullable
+    RuntimeWorldPropertiesFile propertiesFile;
 
+    private final Long2IntOpenHashMap chunkRequests = new Long2IntOpenHashMap();
+    private final AtomicInteger pendingChunkLoads = new AtomicInteger();
+
+    private final long[] tickTimes = new long[TICK_TIME_SAMPLES];
+    private int tickTimeIndex;
+    private boolean ticked;
+
+    /**
+     * @deprecated use the constructor taking the dimension options, as this one looks the registered options up again
+     */
+    @Deprecated
     protected RuntimeWorld(MinecraftServer server, ResourceKey<Level> registryKey, RuntimeWorldConfig config, LevelStorageSource.LevelStorageAccess storageAccess, Style style) {
+        this(server, registryKey, config, getRegisteredDimensionOptions(server, registryKey), storageAccess, style);
+    }
+
+    protected RuntimeWorld(MinecraftServer server, ResourceKey<Level> registryKey, RuntimeWorldConfig config, LevelStem dimensionOptions, LevelStorageSource.LevelStorageAccess storageAccess, Style style) {
         super(
                 server, Util.backgroundExecutor(), storageAccess,
                 new RuntimeWorldProperties(server.getWorldData(), config),
                 registryKey,
-                config.createDimensionOptions(server),
+                dimensionOptions,
                 false,
                 BiomeManager.obfuscateSeed(config.getSeed()),
                 ImmutableList.of(),
@@ -38,11 +86,29 @@ public class RuntimeWorld extends ServerLevel {
         );
         this.style = style;
         this.flat = config.isFlat().orElse(super.isFlat());
+        this.resetTracker = config.isResettable() ? new ChunkResetTracker(this) : null;
+        this.isolated = config.isIsolated();
+        this.tickInterval = config.getTickInterval();
+        this.tickPriority = config.getTickPriority();
+        this.tickOffset = registryKey.identifier().hashCode();
+        this.hibernator = config.getHibernationDelay() > 0 ? new WorldHibernator(this, config.getHibernationDelay()) : null;
+        this.dimensionPath = storageAccess.getDimensionPath(registryKey);
     }
 
     protected RuntimeWorld(MinecraftServer server, Executor workerExecutor, LevelStorageSource.LevelStorageAccess session, ServerLevelData properties, ResourceKey<Level> worldKey, LevelStem dimensionOptions, boolean debugWorld, long seed, List<CustomSpawner> spawners, boolean shouldTickTime, @Nullable RandomSequences randomSequencesState, Style style) {
         super(server, workerExecutor, session, properties, worldKey, dimensionOptions, debugWorld, seed, spawners, shouldTickTime, randomSequencesState);
         this.style = style;
+        this.resetTracker = null;
+        this.isolated = false;
+        this.tickInterval = 1;
+        this.tickPriority = TickPriority.NORMAL;
+        this.tickOffset = worldKey.identifier().hashCode();
+        this.hibernator = null;
+        this.dimensionPath = session.getDimensionPath(worldKey);
+    }
+
+    private static LevelStem getRegisteredDimensionOptions(MinecraftServer server, ResourceKey<Level> registryKey) {
+        return server.registryAccess().lookupOrThrow(Registries.LEVEL_STEM).getValueOrThrow(Registries.levelToLevelStem(registryKey));
     }
 
     @Override
@@ -55,6 +121,11 @@ public class RuntimeWorld extends ServerLevel {
         if (this.style == Style.PERSISTENT || !flush) {
             super.save(progressListener, flush, enabled);
         }
+
+        RuntimeWorldPropertiesFile propertiesFile = this.propertiesFile;
+        if (propertiesFile != null) {
+            propertiesFile.save(this, flush);
+        }
     }
 
     /**
@@ -74,12 +145,250 @@ public class RuntimeWorld extends ServerLevel {
         return this.flat;
     }
 
+    /**
+     * Runs the given task on the server thread once all isolated worlds have finished ticking. Anything touching
+     * state shared with other worlds, such as the scoreboard or players in other dimensions, must go through here
+     * when the world is isolated.
+     * <p>
+     * If the world is not currently being ticked in parallel, the task is run right away.
+     *
+     * @param task the task to run
+     * @see RuntimeWorldConfig#setIsolated(boolean)
+     */
+    public void runAtMergePoint(Runnable task) {
+        if (!ParallelWorldTicker.deferToMergePoint(task)) {
+            task.run();
+        }
+    }
+
+    /**
+     * Decides whether the world should tick on the current server tick, based on its tick interval and on how far the
+     * server is falling behind.
+     */
+    @ApiStatus.Internal
+    public boolean isScheduledToTick() {
+        MinecraftServer server = this.getServer();
+
+        int interval = this.tickInterval;
+        if (this.tickPriority != TickPriority.HIGH) {
+            float load = (float) server.getAverageTickTimeNanos() / server.tickRateManager().nanosecondsPerTick();
+            interval *= this.tickPriority.getIntervalMultiplier(load);
+        }
+
+        // offset by the dimension such that worlds with the same interval do not all tick on the same server tick
+        return interval <= 1 || Math.floorMod(server.getTickCount() + this.tickOffset, interval) == 0;
+    }
+
+    @ApiStatus.Internal
+    public void onTick() {
+        this.ticked = true;
+        if (this.hibernator != null) {
+            this.hibernator.onTick();
+        }
+    }
+
+    void tickHibernation() {
+        if (this.hibernator != null) {
+            this.hibernator.tick();
+        }
+    }
+
+    /**
+     * Wakes the world up from hibernation, or stops it from going into hibernation.
+     */
+    @ApiStatus.Internal
+    public void wake() {
+        if (this.hibernator != null) {
+            this.hibernator.wake();
+        }
+    }
+
+    /**
+     * Requests a chunk to be loaded up to full status without blocking the server thread, which
+     * {@link net.minecraft.server.level.ServerChunkCache#getChunkFuture} does when called on it. The chunk is held by a
+     * ticket until it is ready, such that it unloads again right after once nothing else keeps it loaded.
+     * <br/>
+     * Chunk tasks keep being processed until the chunk is ready, even if the world is not ticking.
+     * <br/>
+     * <i>Must be called on the server thread</i>
+     */
+    CompletableFuture<ChunkResult<ChunkAccess>> requestChunk(int x, int z) {
+        return this.acquireChunk(x, z).whenCompleteAsync((result, throwable) -> this.releaseChunk(x, z), this.getServer());
+    }
+
+    /**
+     * Like {@link RuntimeWorld#requestChunk(int, int)}, but keeps the chunk loaded until
+     * {@link RuntimeWorld#releaseChunk(int, int)} is called.
+     * <br/>
+     * <i>Must be called on the server thread</i>
+     */
+    CompletableFuture<ChunkResult<ChunkAccess>> acquireChunk(int x, int z) {
+        ChunkPos pos = new ChunkPos(x, z);
+
+        // the ticket added by getChunkFutureMainThread expires after a tick, which would cancel any slower generation
+        if (this.chunkRequests.addTo(pos.toLong(), 1) == 0) {
+            this.getChunkSource().addTicketWithRadius(CHUNK_REQUEST_TICKET, pos, 0);
+        }
+        this.pendingChunkLoads.incrementAndGet();
+
+        return ((ServerChunkCacheAccess) this.getChunkSource()).invokeGetChunkFutureMainThread(x, z, ChunkStatus.FULL, true)
+                .whenComplete((result, throwable) -> this.pendingChunkLoads.decrementAndGet());
+    }
+
+    /**
+     * <i>Must be called on the server thread</i>
+     */
+    void releaseChunk(int x, int z) {
+        ChunkPos pos = new ChunkPos(x, z);
+        long key = pos.toLong();
+        if (this.chunkRequests.addTo(key, -1) == 1) {
+            this.chunkRequests.remove(key);
+            this.getChunkSource().removeTicketWithRadius(CHUNK_REQUEST_TICKET, pos, 0);
+        }
+    }
+
+    @ApiStatus.Internal
+    public boolean hasPendingChunkLoads() {
+        return this.pendingChunkLoads.get() > 0;
+    }
+
+    public boolean isHibernating() {
+        return this.hibernator != null && this.hibernator.isHibernating();
+    }
+
+    @ApiStatus.Internal
+    public boolean isPreparingHibernation() {
+        return this.hibernator != null && this.hibernator.isDraining();
+    }
+
+    /**
+     * @return how long it took from the last wake up until the world ticked again, in nanoseconds
+     */
+    public long getLastWakeLatencyNanos() {
+        return this.hibernator != null ? this.hibernator.getLastWakeLatency() : 0;
+    }
+
+    void invalidateLevelSnapshot() {
+        ((FantasyServerAccess) this.getServer()).fantasy$invalidateLevelSnapshot();
+    }
+
+    public boolean isIsolated() {
+        return this.isolated;
+    }
+
+    /**
+     * Runs the given tick of this world while measuring how long it takes.
+     */
+    @ApiStatus.Internal
+    public void runTick(Runnable tick) {
+        WorldTickEvent event = new WorldTickEvent();
+        event.begin();
+
+        this.ticked = false;
+        long start = System.nanoTime();
+        try {
+            tick.run();
+        } finally {
+            // the tick is skipped while dormant, between intervals and once the world has been empty for a while
+            if (this.ticked) {
+                this.recordTickTime(System.nanoTime() - start);
+            }
+
+            if (this.ticked && event.shouldCommit()) {
+                event.setWorld(this.dimension(), this.style.name());
+                event.loadedChunks = this.getChunkSource().getLoadedChunksCount();
+                event.isolated = this.isolated;
+                event.commit();
+            }
+        }
+    }
+
+    private void recordTickTime(long nanos) {
+        this.tickTimes[this.tickTimeIndex] = nanos;
+        this.tickTimeIndex = (this.tickTimeIndex + 1) % TICK_TIME_SAMPLES;
+
+        if (WorldTickProfiler.isEnabled()) {
+            this.getTickProfiler().commit(nanos);
+        }
+    }
+
+    @ApiStatus.Internal
+    public WorldTickProfiler getTickProfiler() {
+        WorldTickProfiler tickProfiler = this.tickProfiler;
+        if (tickProfiler == null) {
+            this.tickProfiler = tickProfiler = new WorldTickProfiler();
+        }
+        return tickProfiler;
+    }
+
+    /**
+     * @return the tick times of this world over the last profiled ticks
+     * @see Fantasy#setTickProfilingEnabled(boolean)
+     */
+    public TickProfile getTickProfile() {
+        WorldTickProfiler tickProfiler = this.tickProfiler;
+        return tickProfiler != null ? tickProfiler.snapshot() : TickProfile.EMPTY;
+    }
+
+    /**
+     * @return the average time this world took to tick over the last 100 ticks it actually ran, in nanoseconds
+     */
+    public long getAverageTickTimeNanos() {
+        long total = 0;
+        for (long tickTime : this.tickTimes) {
+            total += tickTime;
+        }
+        return total / TICK_TIME_SAMPLES;
+    }
+
+    Path getDimensionPath() {
+        return this.dimensionPath;
+    }
+
+    ServerLevelData getServerLevelData() {
+        return (ServerLevelData) this.levelData;
+    }
+
+    @ApiStatus.Internal
+    @Nullable
+    public ChunkResetTracker getResetTracker() {
+        return this.resetTracker;
+    }
+
     public enum Style {
         PERSISTENT,
         TEMPORARY
     }
 
     public interface Constructor {
+        /**
+         * Constructs a world with the default {@link RuntimeWorld} constructor, passing on the dimension options
+         */
+        @SuppressWarnings("deprecation")
+        Constructor DEFAULT = new Constructor() {
+            @Override
+            public RuntimeWorld createWorld(MinecraftServer server, ResourceKey<Level> registryKey, RuntimeWorldConfig config, LevelStorageSource.LevelStorageAccess storageAccess, Style style) {
+                return new RuntimeWorld(server, registryKey, config, storageAccess, style);
+            }
+
+            @Override
+            public RuntimeWorld createWorld(MinecraftServer server, ResourceKey<Level> registryKey, RuntimeWorldConfig config, LevelStem dimensionOptions, LevelStorageSource.LevelStorageAccess storageAccess, Style style) {
+                return new RuntimeWorld(server, registryKey, config, dimensionOptions, storageAccess, style);
+            }
+        };
+
+        /**
+         * Constructs a world which looks up the dimension options registered for it by itself. Only called if
+         * {@link Constructor#createWorld(MinecraftServer, ResourceKey, RuntimeWorldConfig, LevelStem, LevelStorageSource.LevelStorageAccess, Style)}
+         * is not overridden.
+         */
         RuntimeWorld createWorld(MinecraftServer server, ResourceKey<Level> registryKey, RuntimeWorldConfig config, LevelStorageSource.LevelStorageAccess storageAccess, Style style);
+
+        /**
+         * @param dimensionOptions the dimension options registered for the world, which it must be constructed with
+         */
+        default RuntimeWorld createWorld(MinecraftServer server, ResourceKey<Level> registryKey, RuntimeWorldConfig config, LevelStem dimensionOptions, LevelStorageSource.LevelStorageAccess storageAccess, Style style) {
+            return this.createWorld(server, registryKey, config, storageAccess, style);
+        }
     }
 }
@@ -7,6 +7,7 @@ import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.Difficulty;
+import net.minecraft.world.flag.FeatureFlagSet;
 import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.level.dimension.LevelStem;
@@ -15,6 +16,10 @@ import net.minecraft.world.level.gamerules.GameRules;
 import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.fantasy.util.GameRuleStore;
 
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * A configuration describing how a runtime world should be constructed. This includes properties such as the dimension
  * type, chunk generator, and game rules.
@@ -22,6 +27,9 @@ import xyz.nucleoid.fantasy.util.GameRuleStore;
  * @see Fantasy
  */
 public final class RuntimeWorldConfig {
+    // never written to, as every world writes into its own override layer on top of them
+    private static final Map<FeatureFlagSet, GameRules> DEFAULT_GAME_RULES = new ConcurrentHashMap<>();
+
     private long seed = 0;
     private ResourceKey<DimensionType> dimensionTypeKey = Fantasy.DEFAULT_DIM_TYPE;
     private Holder<DimensionType> dimensionType;
@@ -29,10 +37,10 @@ public final class RuntimeWorldConfig {
     private boolean shouldTickTime = false;
     private long timeOfDay = 6000;
     private Difficulty difficulty = Difficulty.NORMAL;
-    private final GameRuleStore gameRules = new GameRuleStore();
+    private GameRuleStore gameRules = new GameRuleStore();
     private boolean mirrorOverworldGameRules = false;
     private boolean mirrorOverworldDifficulty = false;
-    private RuntimeWorld.Constructor worldConstructor = RuntimeWorld::new;
+    private RuntimeWorld.Constructor worldConstructor = RuntimeWorld.Constructor.DEFAULT;
 
     private int sunnyTime = Integer.MAX_VALUE;
     private boolean raining;
@@ -40,6 +48,18 @@ public final class RuntimeWorldConfig {
     private boolean thundering;
     private int thunderTime;
     private TriState flat = TriState.DEFAULT;
+    private boolean resettable;
+    private boolean isolated;
+    private int tickInterval = 1;
+    private TickPriority tickPriority = TickPriority.NORMAL;
+    private int hibernationDelay;
+    private long memoryStorageCapacity;
+    private boolean memoryStorageOffHeap;
+    @Nullable
+    private Path template;
+
+    @Nullable
+    RuntimeWorldTemplate compiledTemplate;
 
     /**
      * Sets the world seed
@@ -75,6 +95,7 @@ public final class RuntimeWorldConfig {
     public RuntimeWorldConfig setDimensionType(Holder<DimensionType> dimensionType) {
         this.dimensionType = dimensionType;
         this.dimensionTypeKey = null;
+        this.compiledTemplate = null;
         return this;
     }
 
@@ -92,6 +113,7 @@ public final class RuntimeWorldConfig {
     public RuntimeWorldConfig setDimensionType(DimensionType dimensionType) {
         this.dimensionType = Holder.direct(dimensionType);
         this.dimensionTypeKey = null;
+        this.compiledTemplate = null;
         return this;
     }
 
@@ -105,6 +127,7 @@ public final class RuntimeWorldConfig {
     public RuntimeWorldConfig setDimensionType(ResourceKey<DimensionType> dimensionType) {
         this.dimensionTypeKey = dimensionType;
         this.dimensionType = null;
+        this.compiledTemplate = null;
         return this;
     }
 
@@ -117,6 +140,7 @@ public final class RuntimeWorldConfig {
      */
     public RuntimeWorldConfig setGenerator(ChunkGenerator generator) {
         this.generator = generator;
+        this.compiledTemplate = null;
         return this;
     }
 
@@ -136,6 +160,7 @@ public final class RuntimeWorldConfig {
     public RuntimeWorldConfig setShouldTickTime(boolean shouldTickTime) {
         this.shouldTickTime = shouldTickTime;
         this.gameRules.set(GameRules.ADVANCE_TIME, shouldTickTime);
+        this.compiledTemplate = null;
         return this;
     }
 
@@ -290,6 +315,188 @@ public final class RuntimeWorldConfig {
         return this.setFlat(TriState.of(state));
     }
 
+    /**
+     * Creates an independent copy of this config. Runtime worlds write their time and weather back into their config,
+     * so a copy should be used whenever a config is used as a template for several worlds.
+     *
+     * @return A new instance of RuntimeWorldConfig with the same values
+     */
+    public RuntimeWorldConfig copy() {
+        RuntimeWorldConfig copy = new RuntimeWorldConfig();
+        copy.seed = this.seed;
+        copy.dimensionTypeKey = this.dimensionTypeKey;
+        copy.dimensionType = this.dimensionType;
+        copy.generator = this.generator;
+        copy.shouldTickTime = this.shouldTickTime;
+        copy.timeOfDay = this.timeOfDay;
+        copy.difficulty = this.difficulty;
+        copy.gameRules = this.gameRules.copy();
+        copy.mirrorOverworldGameRules = this.mirrorOverworldGameRules;
+        copy.mirrorOverworldDifficulty = this.mirrorOverworldDifficulty;
+        copy.worldConstructor = this.worldConstructor;
+        copy.sunnyTime = this.sunnyTime;
+        copy.raining = this.raining;
+        copy.rainTime = this.rainTime;
+        copy.thundering = this.thundering;
+        copy.thunderTime = this.thunderTime;
+        copy.flat = this.flat;
+        copy.resettable = this.resettable;
+        copy.isolated = this.isolated;
+        copy.tickInterval = this.tickInterval;
+        copy.tickPriority = this.tickPriority;
+        copy.hibernationDelay = this.hibernationDelay;
+        copy.memoryStorageCapacity = this.memoryStorageCapacity;
+        copy.memoryStorageOffHeap = this.memoryStorageOffHeap;
+        copy.template = this.template;
+        copy.compiledTemplate = this.compiledTemplate;
+        return copy;
+    }
+
+    /**
+     * Defines if the world should keep track of its original chunk contents such that it can be reset in place
+     * through {@link RuntimeWorldHandle#reset()}
+     * <br/>
+     * <i>Every loaded chunk is copied into memory when it is first loaded</i>
+     *
+     * @param resettable Whenever the world should be resettable
+     *
+     * @return The same instance of RuntimeWorldConfig
+     */
+    public RuntimeWorldConfig setResettable(boolean resettable) {
+        this.resettable = resettable;
+        return this;
+    }
+
+    /**
+     * Defines if the world is isolated from all other worlds, such that it can be ticked in parallel to them
+     * <br/>
+     * Cross-dimensional teleports and broadcasts to all players are automatically deferred until all worlds have
+     * ticked. Any other access to state shared between worlds, such as the scoreboard, must go through
+     * {@link RuntimeWorld#runAtMergePoint(Runnable)}.
+     * <br/>
+     * Isolated worlds are ticked off the server thread before all other worlds, so listeners of Fabric's
+     * {@code START_WORLD_TICK} and {@code END_WORLD_TICK} events are called on a pool thread for them.
+     * <br/>
+     * <br/>
+     * <i>Only enable this for worlds which never interact with other worlds while ticking</i>
+     *
+     * @param isolated Whenever the world should be ticked in parallel
+     *
+     * @return The same instance of RuntimeWorldConfig
+     */
+    public RuntimeWorldConfig setIsolated(boolean isolated) {
+        this.isolated = isolated;
+        return this;
+    }
+
+    /**
+     * Sets how often the world is ticked, for example every 2nd or 4th server tick
+     * <br/>
+     * <i>Time, weather and all other world logic advance at the reduced rate</i>
+     *
+     * @param tickInterval The amount of server ticks between two ticks of the world, where 1 ticks it every server tick
+     *
+     * @return The same instance of RuntimeWorldConfig
+     */
+    public RuntimeWorldConfig setTickInterval(int tickInterval) {
+        Preconditions.checkArgument(tickInterval > 0, "tick interval must be positive");
+        this.tickInterval = tickInterval;
+        return this;
+    }
+
+    /**
+     * Sets how important it is for the world to keep its tick rate while the server is falling behind
+     *
+     * @param tickPriority The priority of the world
+     *
+     * @return The same instance of RuntimeWorldConfig
+     */
+    public RuntimeWorldConfig setTickPriority(TickPriority tickPriority) {
+        this.tickPriority = tickPriority;
+        return this;
+    }
+
+    /**
+     * Sets after how many ticks without players the world goes into hibernation
+     * <br/>
+     * A hibernating world saves and unloads all of its chunks and is not ticked at all, until a player enters it or a
+     * chunk ticket is added to it. Worlds with force loaded chunks never hibernate.
+     *
+     * @param hibernationDelay The amount of idle ticks before hibernating, or 0 to never hibernate
+     *
+     * @return The same instance of RuntimeWorldConfig
+     */
+    public RuntimeWorldConfig setHibernationDelay(int hibernationDelay) {
+        Preconditions.checkArgument(hibernationDelay >= 0, "hibernation delay must not be negative");
+        this.hibernationDelay = hibernationDelay;
+        return this;
+    }
+
+    /**
+     * Keeps the chunks evicted from a temporary world compressed in memory instead of writing them to region files
+     * <br/>
+     * Chunks which no longer fit into the given capacity are written to disk as usual.
+     * <br/>
+     * <br/>
+     * <i>Has no effect on persistent worlds</i>
+     *
+     * @param capacity The maximum amount of compressed bytes to keep in memory, or 0 to always write to disk
+     *
+     * @return The same instance of RuntimeWorldConfig
+     */
+    public RuntimeWorldConfig setMemoryStorage(long capacity) {
+        Preconditions.checkArgument(capacity >= 0, "memory storage capacity must not be negative");
+        this.memoryStorageCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * Defines if the memory storage of a temporary world should be allocated outside of the Java heap
+     *
+     * @param offHeap Whenever the memory storage should be allocated off-heap
+     *
+     * @return The same instance of RuntimeWorldConfig
+     *
+     * @see RuntimeWorldConfig#setMemoryStorage(long)
+     */
+    public RuntimeWorldConfig setMemoryStorageOffHeap(boolean offHeap) {
+        this.memoryStorageOffHeap = offHeap;
+        return this;
+    }
+
+    /**
+     * Makes the world read every chunk it has not saved itself from the given template directory
+     * <br/>
+     * Any amount of worlds can share the same template, which is only read once and never written to. Every world
+     * stores the chunks that have changed in it in its own directory, or in memory if
+     * {@link RuntimeWorldConfig#setMemoryStorage(long)} is set.
+     *
+     * @param template The dimension directory of the template, containing the region, entities and poi directories
+     *
+     * @return The same instance of RuntimeWorldConfig
+     */
+    public RuntimeWorldConfig setTemplate(@Nullable Path template) {
+        this.template = template;
+        return this;
+    }
+
+    /**
+     * Resolves this config against the server into an immutable template, from which any amount of worlds can be
+     * opened without resolving it again
+     * <br/>
+     * <i>Later changes to this config do not affect the template</i>
+     *
+     * @return The compiled template
+     */
+    public RuntimeWorldTemplate compile(MinecraftServer server) {
+        RuntimeWorldConfig config = this.copy();
+        config.gameRules = this.gameRules.freeze();
+        Holder<DimensionType> dimensionType = config.resolveDimensionType(server);
+        config.dimensionType = dimensionType;
+        config.dimensionTypeKey = null;
+        return new RuntimeWorldTemplate(config, dimensionType, server.getWorldData().enabledFeatures());
+    }
+
     public long getSeed() {
         return this.seed;
     }
@@ -300,10 +507,31 @@ public final class RuntimeWorldConfig {
      * @return The new dimension options
      */
     public LevelStem createDimensionOptions(MinecraftServer server) {
+        RuntimeWorldTemplate compiledTemplate = this.compiledTemplate;
+        if (compiledTemplate != null) {
+            return compiledTemplate.createDimensionOptions();
+        }
+
         var dimensionType = this.resolveDimensionType(server);
         return new LevelStem(dimensionType, this.generator);
     }
 
+    /**
+     * Creates the game rules of a world, which only store the rules set in this config or later changed in the world.
+     * All other rules are read from the rules of the template the config was created from, or from default rules
+     * shared by all worlds.
+     */
+    GameRules createGameRules(FeatureFlagSet enabledFeatures) {
+        RuntimeWorldTemplate compiledTemplate = this.compiledTemplate;
+        GameRules base = compiledTemplate != null
+                ? compiledTemplate.getGameRules()
+                : DEFAULT_GAME_RULES.computeIfAbsent(enabledFeatures, GameRules::new);
+
+        GameRules rules = new GameRules(enabledFeatures);
+        ((FantasyGameRules) rules).fantasy$setBase(base, this.gameRules.copy());
+        return rules;
+    }
+
     /**
      * Resolves the dimension type from the server
      *
@@ -388,4 +616,37 @@ public final class RuntimeWorldConfig {
     public TriState isFlat() {
         return this.flat;
     }
+
+    public boolean isResettable() {
+        return this.resettable;
+    }
+
+    public boolean isIsolated() {
+        return this.isolated;
+    }
+
+    public int getTickInterval() {
+        return this.tickInterval;
+    }
+
+    public TickPriority getTickPriority() {
+        return this.tickPriority;
+    }
+
+    public int getHibernationDelay() {
+        return this.hibernationDelay;
+    }
+
+    public long getMemoryStorageCapacity() {
+        return this.memoryStorageCapacity;
+    }
+
+    public boolean isMemoryStorageOffHeap() {
+        return this.memoryStorageOffHeap;
+    }
+
+    @Nullable
+    public Path getTemplate() {
+        return this.template;
+    }
 }
@@ -1,8 +1,13 @@
 package xyz.nucleoid.fantasy;
 
+import com.google.common.base.Preconditions;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
 
 public final class RuntimeWorldHandle {
     private final Fantasy fantasy;
@@ -24,15 +29,184 @@ public final class RuntimeWorldHandle {
         this.fantasy.enqueueWorldDeletion(this.world);
     }
 
+    /**
+     * Deletes the world, including all stored files.
+     * <p>
+     * The files are removed in the background after the world has been closed. The returned future completes once the
+     * world directory has been deleted, or is cancelled if the world is reopened before it could be deleted.
+     *
+     * @return a future completing once the world files are gone
+     */
+    public CompletableFuture<Void> deleteAsync() {
+        return this.fantasy.enqueueWorldDeletion(this.world);
+    }
+
     /**
      * Unloads the world. It only deletes the files if world is temporary.
      */
     public void unload() {
+        this.unloadAsync();
+    }
+
+    /**
+     * Unloads the world. It only deletes the files if world is temporary.
+     * <p>
+     * Persistent worlds are saved incrementally over several ticks, and their progress can be observed through
+     * {@link RuntimeWorldHandle#getUnloadStage()} and {@link RuntimeWorldHandle#getUnloadProgress()}.
+     *
+     * @return a future completing once the world has been removed from the server
+     */
+    public CompletableFuture<Void> unloadAsync() {
         if (this.world instanceof RuntimeWorld runtimeWorld && runtimeWorld.style == RuntimeWorld.Style.TEMPORARY) {
-            this.fantasy.enqueueWorldDeletion(this.world);
+            return this.fantasy.enqueueWorldDeletion(this.world);
         } else {
-            this.fantasy.enqueueWorldUnloading(this.world);
+            return this.fantasy.enqueueWorldUnloading(this.world);
+        }
+    }
+
+    /**
+     * @return the stage the world is currently in while being unloaded, or {@link UnloadStage#NONE} if it is not
+     */
+    public UnloadStage getUnloadStage() {
+        return this.fantasy.getUnloadStage(this.world);
+    }
+
+    /**
+     * @return the fraction of chunks that have been saved and unloaded while the world is being unloaded
+     */
+    public float getUnloadProgress() {
+        return this.fantasy.getUnloadProgress(this.world);
+    }
+
+    /**
+     * Resets the world in place by restoring every chunk modified since it was loaded and removing all entities except
+     * for players. The world, its chunk map and its registry entry stay alive. Modified chunks which are not loaded are
+     * loaded in the background and restored once they are.
+     * <p>
+     * The world must have been created with {@link RuntimeWorldConfig#setResettable(boolean)} enabled.
+     *
+     * @return the amount of chunks that were or will be restored
+     */
+    public int reset() {
+        if (!(this.world instanceof RuntimeWorld runtimeWorld) || runtimeWorld.getResetTracker() == null) {
+            throw new IllegalStateException("world " + this.world.dimension().identifier() + " is not resettable");
+        }
+        return runtimeWorld.getResetTracker().reset();
+    }
+
+    /**
+     * Captures the blocks and block entities of every loaded chunk, all entities except for players, and the time and
+     * weather of the world into memory.
+     * <p>
+     * Chunks that are not loaded while the snapshot is taken are not part of it and are left untouched on restore.
+     *
+     * @return the captured snapshot
+     * @see RuntimeWorldHandle#restore(WorldSnapshot)
+     */
+    public WorldSnapshot snapshot() {
+        return WorldSnapshot.capture(this.runtimeWorld());
+    }
+
+    /**
+     * Restores the world to the given snapshot. Only blocks that differ from the snapshot are changed, all entities
+     * except for players are replaced by the captured ones, and the time and weather are reset.
+     * <p>
+     * The restore is spread over several ticks for large worlds. Restoring another snapshot before the returned future
+     * completes cancels the previous restore. Chunks of the snapshot which have been unloaded since are loaded again in
+     * the background before being restored.
+     *
+     * @param snapshot the snapshot previously taken from this world
+     * @return a future completing on the server thread once the world has been fully restored
+     * @throws IllegalArgumentException if the snapshot was taken from another world
+     */
+    public CompletableFuture<Void> restore(WorldSnapshot snapshot) {
+        if (!snapshot.dimension.equals(this.world.dimension())) {
+            throw new IllegalArgumentException("snapshot of " + snapshot.dimension.identifier() + " cannot be restored into " + this.world.dimension().identifier());
+        }
+        return this.fantasy.enqueueWorldRestore(this.runtimeWorld(), snapshot);
+    }
+
+    /**
+     * Generates all chunks within the given radius around the center in the background, without keeping them loaded.
+     * <p>
+     * Generation slows down while the server falls behind {@link PregenerationOptions#setTargetMspt(float)}. Unloading
+     * or deleting the world, or starting another pre-generation for it, stops the current one. Cancelling the returned
+     * future stops it as well.
+     *
+     * @param center the chunk to generate around
+     * @param radius the radius of the square to generate, in chunks
+     * @param options the options controlling the generation speed
+     * @return a future completing on the server thread with the final progress once all chunks have been generated
+     */
+    public CompletableFuture<PregenerationProgress> pregenerate(ChunkPos center, int radius, PregenerationOptions options) {
+        Preconditions.checkArgument(radius >= 0, "radius must not be negative");
+        return this.fantasy.enqueuePregeneration(this.runtimeWorld(), center, radius, options);
+    }
+
+    /**
+     * @return the progress of the currently running pre-generation, or {@code null} if there is none
+     */
+    @Nullable
+    public PregenerationProgress getPregenerationProgress() {
+        return this.fantasy.getPregenerationProgress(this.world);
+    }
+
+    private RuntimeWorld runtimeWorld() {
+        if (!(this.world instanceof RuntimeWorld runtimeWorld)) {
+            throw new IllegalStateException("world " + this.world.dimension().identifier() + " is not a runtime world");
+        }
+        return runtimeWorld;
+    }
+
+    /**
+     * @return the average time the world took to tick over the last 100 ticks, in nanoseconds
+     */
+    public long getAverageTickTimeNanos() {
+        if (this.world instanceof RuntimeWorld runtimeWorld) {
+            return runtimeWorld.getAverageTickTimeNanos();
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the tick times of the world over the last profiled ticks, split up by {@link TickPhase}. Profiling must be
+     * enabled through {@link Fantasy#setTickProfilingEnabled(boolean)}.
+     *
+     * @return the tick profile, or {@link TickProfile#EMPTY} if the world has not been profiled
+     */
+    public TickProfile getTickProfile() {
+        if (this.world instanceof RuntimeWorld runtimeWorld) {
+            return runtimeWorld.getTickProfile();
+        }
+        return TickProfile.EMPTY;
+    }
+
+    /**
+     * @return whether the world is hibernating and not being ticked
+     * @see RuntimeWorldConfig#setHibernationDelay(int)
+     */
+    public boolean isHibernating() {
+        return this.world instanceof RuntimeWorld runtimeWorld && runtimeWorld.isHibernating();
+    }
+
+    /**
+     * Wakes the world up from hibernation. This happens automatically when a player enters the world or a chunk ticket
+     * is added, so it is only needed to make an empty world tick again.
+     */
+    public void wake() {
+        if (this.world instanceof RuntimeWorld runtimeWorld) {
+            runtimeWorld.wake();
+        }
+    }
+
+    /**
+     * @return how long it took the world to tick again after it last woke up from hibernation, in nanoseconds
+     */
+    public long getLastWakeLatencyNanos() {
+        if (this.world instanceof RuntimeWorld runtimeWorld) {
+            return runtimeWorld.getLastWakeLatencyNanos();
         }
+        return 0;
     }
 
     public ServerLevel asWorld() {
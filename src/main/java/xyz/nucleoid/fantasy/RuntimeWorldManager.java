@@ -5,127 +5,411 @@ import net.minecraft.core.MappedRegistry;
 import net.minecraft.core.RegistrationInfo;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.core.registries.Registries;
-import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.util.ProgressListener;
+import net.minecraft.util.Util;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.dimension.LevelStem;
 import net.minecraft.world.level.storage.LevelStorageSource;
 import org.apache.commons.io.FileUtils;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.fantasy.jfr.RegistryChangeEvent;
+import xyz.nucleoid.fantasy.jfr.WorldCreateEvent;
+import xyz.nucleoid.fantasy.jfr.WorldCreatePhaseEvent;
+import xyz.nucleoid.fantasy.jfr.WorldDeleteEvent;
 import xyz.nucleoid.fantasy.mixin.MinecraftServerAccess;
+import xyz.nucleoid.fantasy.storage.ChunkTemplate;
+import xyz.nucleoid.fantasy.storage.MemoryChunkStorage;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 final class RuntimeWorldManager {
+    private static final int SPAWN_AREA_RADIUS = 1;
+
     private final MinecraftServer server;
     private final MinecraftServerAccess serverAccess;
+    private final FantasyIoWorker ioWorker;
 
-    RuntimeWorldManager(MinecraftServer server) {
+    RuntimeWorldManager(MinecraftServer server, FantasyIoWorker ioWorker) {
         this.server = server;
         this.serverAccess = (MinecraftServerAccess) server;
+        this.ioWorker = ioWorker;
     }
 
     private RuntimeWorld add(ResourceKey<Level> worldKey, RuntimeWorldConfig config, LevelStorageSource.LevelStorageAccess storageAccess, RuntimeWorld.Style style) {
+        WorldCreateEvent event = beginCreate(worldKey, style);
+
+        PreparedWorld prepared = this.prepare(worldKey, config, storageAccess, style);
+        RuntimeWorld world = this.publish(worldKey, prepared, storageAccess, style);
+
+        // tick the world to ensure it is ready for use right away
+        primeWorld(world);
+
+        commitCreate(event, world);
+        return world;
+    }
+
+    RuntimeWorld add(ResourceKey<Level> worldKey, RuntimeWorldConfig config,
+                     LevelStorageSource.LevelStorageAccess storageAccess) {
+        return this.add(worldKey, config, storageAccess, RuntimeWorld.Style.PERSISTENT);
+    }
+
+    RuntimeWorld add(ResourceKey<Level> worldKey, RuntimeWorldConfig config, RuntimeWorld.Style style) {
+        return this.add(worldKey, config, this.serverAccess.getStorageSource(), style);
+    }
+
+    /**
+     * Adds a world in three steps: the dimension options and storage are prepared on a background thread, the world is
+     * then constructed and published on the server thread, and finally the chunks around the origin are loaded before
+     * the returned future completes on the server thread.
+     */
+    CompletableFuture<RuntimeWorld> addAsync(ResourceKey<Level> worldKey, RuntimeWorldConfig config, LevelStorageSource.LevelStorageAccess storageAccess, RuntimeWorld.Style style) {
+        WorldCreateEvent event = beginCreate(worldKey, style);
+
+        return CompletableFuture.supplyAsync(() -> this.prepare(worldKey, config, storageAccess, style), Util.backgroundExecutor())
+                .thenApplyAsync(prepared -> this.publish(worldKey, prepared, storageAccess, style), this.server)
+                .thenCompose(world -> loadSpawnArea(world)
+                        .thenApplyAsync(v -> {
+                            commitCreate(event, world);
+                            return world;
+                        }, this.server)
+                        .whenCompleteAsync((result, throwable) -> {
+                            if (throwable != null) {
+                                this.removeFailed(world, throwable);
+                            }
+                        }, this.server));
+    }
+
+    /**
+     * Removes a world which has already been published but failed to finish opening, as no handle to it is ever
+     * returned.
+     */
+    private void removeFailed(RuntimeWorld world, Throwable throwable) {
+        Fantasy.LOGGER.warn("Failed to open world {}, removing it again", world.dimension().identifier(), throwable);
+        if (world.style == RuntimeWorld.Style.TEMPORARY) {
+            this.delete(world);
+        } else {
+            // the files of a persistent world are kept, as they might hold data from before it was opened
+            this.unload(world);
+        }
+    }
+
+    CompletableFuture<RuntimeWorld> addAsync(ResourceKey<Level> worldKey, RuntimeWorldConfig config, RuntimeWorld.Style style) {
+        return this.addAsync(worldKey, config, this.serverAccess.getStorageSource(), style);
+    }
+
+    /**
+     * Resolves everything needed to construct the world which does not touch live server state, and can therefore be
+     * called off the server thread.
+     */
+    private PreparedWorld prepare(ResourceKey<Level> worldKey, RuntimeWorldConfig config, LevelStorageSource.LevelStorageAccess storageAccess, RuntimeWorld.Style style) {
+        WorldCreatePhaseEvent event = beginPhase(worldKey, style, WorldCreatePhaseEvent.CREATE_DIMENSION_OPTIONS);
         LevelStem options = config.createDimensionOptions(this.server);
+        event.commit();
 
         if (style == RuntimeWorld.Style.TEMPORARY) {
             ((FantasyDimensionOptions) (Object) options).fantasy$setSave(false);
+
+            try {
+                FileUtils.forceDeleteOnExit(storageAccess.getDimensionPath(worldKey).toFile());
+            } catch (IOException ignored) {
+            }
         }
         ((FantasyDimensionOptions) (Object) options).fantasy$setSaveProperties(false);
 
-        MappedRegistry<LevelStem> dimensionsRegistry = getDimensionsRegistry(this.server);
-        boolean isFrozen = ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$isFrozen();
-        ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(false);
-
-        var key = ResourceKey.create(Registries.LEVEL_STEM, worldKey.identifier());
-        if (!dimensionsRegistry.containsKey(key)) {
-            dimensionsRegistry.register(key, options, RegistrationInfo.BUILT_IN);
+        RuntimeWorldPropertiesFile propertiesFile = null;
+        if (style == RuntimeWorld.Style.PERSISTENT) {
+            // time and weather are stored by Fantasy instead of the level data, and only read once the world is opened
+            propertiesFile = new RuntimeWorldPropertiesFile(storageAccess.getDimensionPath(worldKey), this.ioWorker, config);
+            config = propertiesFile.load(config);
         }
-        ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(isFrozen);
 
-        RuntimeWorld world = config.getWorldConstructor().createWorld(this.server, worldKey, config, storageAccess, style);
+        return new PreparedWorld(config, options, propertiesFile);
+    }
+
+    private RuntimeWorld publish(ResourceKey<Level> worldKey, PreparedWorld prepared, LevelStorageSource.LevelStorageAccess storageAccess, RuntimeWorld.Style style) {
+        this.registerDimensions(List.of(worldKey), List.of(prepared.options()));
+
+        RuntimeWorld world = this.construct(worldKey, prepared, storageAccess, style);
 
         this.serverAccess.getLevels().put(world.dimension(), world);
+        ((FantasyServerAccess) this.server).fantasy$invalidateLevelSnapshot();
+        this.fireLoad(world);
+
+        return world;
+    }
+
+    private RuntimeWorld construct(ResourceKey<Level> worldKey, PreparedWorld prepared, LevelStorageSource.LevelStorageAccess storageAccess, RuntimeWorld.Style style) {
+        RuntimeWorldConfig config = prepared.config();
+        WorldCreatePhaseEvent event = beginPhase(worldKey, style, WorldCreatePhaseEvent.CONSTRUCT);
+
+        // region storages are created by the world constructor and pick up their backing stores from here
+        boolean memoryStorage = style == RuntimeWorld.Style.TEMPORARY && config.getMemoryStorageCapacity() > 0;
+        if (memoryStorage) {
+            new MemoryChunkStorage(config.getMemoryStorageCapacity(), config.isMemoryStorageOffHeap()).beginConstruct(worldKey);
+        }
+        Path template = config.getTemplate();
+        if (template != null) {
+            ChunkTemplate.beginConstruct(worldKey, template);
+        }
+
+        RuntimeWorld world;
+        try {
+            world = config.getWorldConstructor().createWorld(this.server, worldKey, config, prepared.options(), storageAccess, style);
+        } finally {
+            MemoryChunkStorage.endConstruct(worldKey);
+            ChunkTemplate.endConstruct(worldKey);
+        }
+
+        world.propertiesFile = prepared.propertiesFile();
+
+        event.commit();
+        return world;
+    }
+
+    private void fireLoad(RuntimeWorld world) {
+        WorldCreatePhaseEvent event = beginPhase(world.dimension(), world.style, WorldCreatePhaseEvent.LOAD_EVENT);
         ServerWorldEvents.LOAD.invoker().onWorldLoad(this.server, world);
+        event.commit();
+    }
 
-        // tick the world to ensure it is ready for use right away
+    private static void primeWorld(RuntimeWorld world) {
+        WorldCreatePhaseEvent event = beginPhase(world.dimension(), world.style, WorldCreatePhaseEvent.PRIMING_TICK);
         world.tick(() -> true);
+        event.loadedChunks = world.getChunkSource().getLoadedChunksCount();
+        event.commit();
+    }
 
-        return world;
+    private static WorldCreateEvent beginCreate(ResourceKey<Level> worldKey, RuntimeWorld.Style style) {
+        WorldCreateEvent event = new WorldCreateEvent();
+        if (event.isEnabled()) {
+            event.setWorld(worldKey, style.name());
+            event.begin();
+        }
+        return event;
     }
 
-    RuntimeWorld add(ResourceKey<Level> worldKey, RuntimeWorldConfig config,
-                     LevelStorageSource.LevelStorageAccess storageAccess) {
-        return this.add(worldKey, config, storageAccess, RuntimeWorld.Style.PERSISTENT);
+    private static void commitCreate(WorldCreateEvent event, RuntimeWorld world) {
+        if (event.shouldCommit()) {
+            event.loadedChunks = world.getChunkSource().getLoadedChunksCount();
+            event.commit();
+        }
     }
 
-    RuntimeWorld add(ResourceKey<Level> worldKey, RuntimeWorldConfig config, RuntimeWorld.Style style) {
-        return this.add(worldKey, config, this.serverAccess.getStorageSource(), style);
+    private static WorldCreatePhaseEvent beginPhase(ResourceKey<Level> worldKey, RuntimeWorld.Style style, String phase) {
+        WorldCreatePhaseEvent event = new WorldCreatePhaseEvent();
+        if (event.isEnabled()) {
+            event.setWorld(worldKey, style.name());
+            event.phase = phase;
+            event.begin();
+        }
+        return event;
     }
 
-    void delete(ServerLevel world) {
-        ResourceKey<Level> dimensionKey = world.dimension();
+    /**
+     * Adds several worlds at once. The dimension options of all worlds are prepared in parallel, all dimensions are
+     * registered within a single unfreeze of the dimension registry, and the worlds are published to the server together.
+     */
+    List<RuntimeWorld> addAll(List<ResourceKey<Level>> worldKeys, List<RuntimeWorldConfig> configs, RuntimeWorld.Style style) {
+        LevelStorageSource.LevelStorageAccess storageAccess = this.serverAccess.getStorageSource();
+        int count = worldKeys.size();
 
-        if (this.serverAccess.getLevels().remove(dimensionKey, world)) {
-            ServerWorldEvents.UNLOAD.invoker().onWorldUnload(this.server, world);
+        long startTime = System.nanoTime();
 
-            MappedRegistry<LevelStem> dimensionsRegistry = getDimensionsRegistry(this.server);
-            RemoveFromRegistry.remove(dimensionsRegistry, dimensionKey.identifier());
+        List<WorldCreateEvent> events = new ArrayList<>(count);
+        for (ResourceKey<Level> worldKey : worldKeys) {
+            events.add(beginCreate(worldKey, style));
+        }
 
-            LevelStorageSource.LevelStorageAccess session = this.serverAccess.getStorageSource();
-            File worldDirectory = session.getDimensionPath(dimensionKey).toFile();
-            if (worldDirectory.exists()) {
-                try {
-                    FileUtils.deleteDirectory(worldDirectory);
-                } catch (IOException e) {
-                    Fantasy.LOGGER.warn("Failed to delete world directory", e);
-                    try {
-                        FileUtils.forceDeleteOnExit(worldDirectory);
-                    } catch (IOException ignored) {
-                    }
+        List<CompletableFuture<PreparedWorld>> preparing = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ResourceKey<Level> worldKey = worldKeys.get(i);
+            RuntimeWorldConfig config = configs.get(i);
+            preparing.add(CompletableFuture.supplyAsync(() -> this.prepare(worldKey, config, storageAccess, style), Util.backgroundExecutor()));
+        }
+
+        List<PreparedWorld> prepared = new ArrayList<>(count);
+        List<LevelStem> options = new ArrayList<>(count);
+        for (CompletableFuture<PreparedWorld> future : preparing) {
+            PreparedWorld world = future.join();
+            prepared.add(world);
+            options.add(world.options());
+        }
+
+        long prepareTime = System.nanoTime();
+
+        this.registerDimensions(worldKeys, options);
+
+        long registerTime = System.nanoTime();
+
+        List<RuntimeWorld> worlds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            worlds.add(this.construct(worldKeys.get(i), prepared.get(i), storageAccess, style));
+        }
+
+        long constructTime = System.nanoTime();
+
+        Map<ResourceKey<Level>, ServerLevel> levels = this.serverAccess.getLevels();
+        for (RuntimeWorld world : worlds) {
+            levels.put(world.dimension(), world);
+        }
+        ((FantasyServerAccess) this.server).fantasy$invalidateLevelSnapshot();
+        for (RuntimeWorld world : worlds) {
+            this.fireLoad(world);
+        }
+
+        long publishTime = System.nanoTime();
+
+        // tick the worlds to ensure they are ready for use right away
+        for (RuntimeWorld world : worlds) {
+            primeWorld(world);
+        }
+
+        long tickTime = System.nanoTime();
+
+        for (int i = 0; i < count; i++) {
+            commitCreate(events.get(i), worlds.get(i));
+        }
+
+        Fantasy.LOGGER.debug(
+                "Opened {} worlds in {} ms (prepare: {} ms, register: {} ms, construct: {} ms, publish: {} ms, tick: {} ms)",
+                count,
+                toMillis(tickTime - startTime),
+                toMillis(prepareTime - startTime),
+                toMillis(registerTime - prepareTime),
+                toMillis(constructTime - registerTime),
+                toMillis(publishTime - constructTime),
+                toMillis(tickTime - publishTime)
+        );
+
+        return worlds;
+    }
+
+    private void registerDimensions(List<ResourceKey<Level>> worldKeys, List<LevelStem> options) {
+        MappedRegistry<LevelStem> dimensionsRegistry = getDimensionsRegistry(this.server);
+        boolean isFrozen = ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$isFrozen();
+        ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(false);
+
+        try {
+            for (int i = 0; i < worldKeys.size(); i++) {
+                var key = ResourceKey.create(Registries.LEVEL_STEM, worldKeys.get(i).identifier());
+                if (!dimensionsRegistry.containsKey(key)) {
+                    RegistryChangeEvent event = new RegistryChangeEvent();
+                    event.begin();
+                    dimensionsRegistry.register(key, options.get(i), RegistrationInfo.BUILT_IN);
+                    commitRegistryChange(event, key.identifier(), RegistryChangeEvent.INSERT, dimensionsRegistry);
                 }
             }
+        } finally {
+            ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(isFrozen);
         }
     }
 
-    void unload(ServerLevel world) {
+    private static void removeDimension(MappedRegistry<LevelStem> dimensionsRegistry, ResourceKey<Level> dimensionKey) {
+        RegistryChangeEvent event = new RegistryChangeEvent();
+        event.begin();
+        RemoveFromRegistry.remove(dimensionsRegistry, dimensionKey.identifier());
+        commitRegistryChange(event, dimensionKey.identifier(), RegistryChangeEvent.REMOVE, dimensionsRegistry);
+    }
+
+    private static void commitRegistryChange(RegistryChangeEvent event, Identifier dimension, String action, MappedRegistry<LevelStem> registry) {
+        if (event.shouldCommit()) {
+            event.dimension = dimension.toString();
+            event.action = action;
+            event.registrySize = registry.size();
+            event.commit();
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Loads the chunks around the world origin without blocking the server thread, completing once all of them are
+     * ready. Chunks that fail to load do not fail the returned future, matching how a synchronous load behaves.
+     */
+    private static CompletableFuture<Void> loadSpawnArea(RuntimeWorld world) {
+        int size = SPAWN_AREA_RADIUS * 2 + 1;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[size * size];
+
+        int index = 0;
+        for (int z = -SPAWN_AREA_RADIUS; z <= SPAWN_AREA_RADIUS; z++) {
+            for (int x = -SPAWN_AREA_RADIUS; x <= SPAWN_AREA_RADIUS; x++) {
+                futures[index++] = world.requestChunk(x, z);
+            }
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    CompletableFuture<Void> delete(ServerLevel world) {
         ResourceKey<Level> dimensionKey = world.dimension();
 
         if (this.serverAccess.getLevels().remove(dimensionKey, world)) {
-            world.save(new ProgressListener() {
-                @Override
-                public void progressStartNoAbort(Component title) {
-                }
+            WorldDeleteEvent event = new WorldDeleteEvent();
+            if (event.isEnabled()) {
+                event.setWorld(dimensionKey, styleOf(world));
+                event.loadedChunks = world.getChunkSource().getLoadedChunksCount();
+                event.begin();
+            }
 
-                @Override
-                public void progressStart(Component title) {
-                }
+            ((FantasyServerAccess) this.server).fantasy$invalidateLevelSnapshot();
+            ServerWorldEvents.UNLOAD.invoker().onWorldUnload(this.server, world);
 
-                @Override
-                public void progressStage(Component task) {
-                }
+            MappedRegistry<LevelStem> dimensionsRegistry = getDimensionsRegistry(this.server);
+            removeDimension(dimensionsRegistry, dimensionKey);
 
-                @Override
-                public void progressStagePercentage(int percentage) {
-                }
+            event.commit();
 
-                @Override
-                public void stop() {
-                }
-            }, true, false);
+            LevelStorageSource.LevelStorageAccess session = this.serverAccess.getStorageSource();
+            Path worldDirectory = session.getDimensionPath(dimensionKey);
+            return this.ioWorker.deleteWorldDirectory(world, worldDirectory);
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Removes an already saved world from the server and closes its storage. Saving is driven beforehand by the
+     * {@link WorldUnloader}.
+     */
+    void unload(ServerLevel world) {
+        ResourceKey<Level> dimensionKey = world.dimension();
 
-            ServerWorldEvents.UNLOAD.invoker().onWorldUnload(RuntimeWorldManager.this.server, world);
+        if (this.serverAccess.getLevels().remove(dimensionKey, world)) {
+            ((FantasyServerAccess) this.server).fantasy$invalidateLevelSnapshot();
+            ServerWorldEvents.UNLOAD.invoker().onWorldUnload(this.server, world);
+
+            MappedRegistry<LevelStem> dimensionsRegistry = getDimensionsRegistry(this.server);
+            removeDimension(dimensionsRegistry, dimensionKey);
 
-            MappedRegistry<LevelStem> dimensionsRegistry = getDimensionsRegistry(RuntimeWorldManager.this.server);
-            RemoveFromRegistry.remove(dimensionsRegistry, dimensionKey.identifier());
+            // the storage holds on to generator state and templates shared with other worlds until it is closed
+            this.ioWorker.closeWorldStorage(world);
         }
     }
 
+    static String styleOf(ServerLevel world) {
+        return world instanceof RuntimeWorld runtimeWorld ? runtimeWorld.style.name() : "NONE";
+    }
+
     private static MappedRegistry<LevelStem> getDimensionsRegistry(MinecraftServer server) {
         RegistryAccess registryManager = server.registries().compositeAccess();
         return (MappedRegistry<LevelStem>) registryManager.lookupOrThrow(Registries.LEVEL_STEM);
     }
+
+    /**
+     * @param config the config to construct the world with, which may be a copy of the one it was opened with
+     * @param options the dimension options registered for the world
+     * @param propertiesFile the file storing the properties of the world, if it is persistent
+     */
+    private record PreparedWorld(RuntimeWorldConfig config, LevelStem options, @Nullable RuntimeWorldPropertiesFile propertiesFile) {
+    }
 }
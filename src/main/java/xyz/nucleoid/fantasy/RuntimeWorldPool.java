@@ -0,0 +1,272 @@
+package xyz.nucleoid.fantasy;
+
+import com.google.common.base.Preconditions;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * A pool of pre-warmed temporary worlds which are all created from the same {@link RuntimeWorldConfig} template.
+ * <p>
+ * Pooled worlds are fully constructed and registered, but stay dormant and are not ticked until they are handed out
+ * through {@link RuntimeWorldPool#acquire()}. The pool refills itself in the background whenever the number of
+ * available worlds drops below the low water mark, and evicts worlds that have been idle for too long.
+ *
+ * @see Fantasy#createWorldPool(RuntimeWorldConfig, RuntimeWorldPool.Settings)
+ */
+public final class RuntimeWorldPool {
+    private final Fantasy fantasy;
+    private final MinecraftServer server;
+    private final RuntimeWorldTemplate template;
+    private final Settings settings;
+
+    private final Deque<Entry> available = new ArrayDeque<>();
+    private int pending;
+    private boolean refilling;
+    private boolean closed;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    RuntimeWorldPool(Fantasy fantasy, MinecraftServer server, RuntimeWorldConfig template, Settings settings) {
+        this.fantasy = fantasy;
+        this.server = server;
+        this.template = template.compile(server);
+        this.settings = settings.copy();
+    }
+
+    /**
+     * Takes a ready world out of the pool, or opens a new temporary world right away if the pool is empty.
+     * <p>
+     * The returned world is owned by the caller and should be deleted once it is no longer needed.
+     *
+     * @return a handle to a ticking temporary world
+     */
+    public RuntimeWorldHandle acquire() {
+        Preconditions.checkState(!this.closed, "pool is closed");
+
+        Entry entry = this.available.pollFirst();
+        if (entry != null) {
+            this.hits++;
+            ((FantasyWorldAccess) entry.handle.asWorld()).fantasy$setDormant(false);
+            return entry.handle;
+        }
+
+        this.misses++;
+        return this.fantasy.openTemporaryWorld(this.template.createConfig());
+    }
+
+    /**
+     * Deletes all worlds which are still held by the pool and stops refilling it.
+     */
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        for (Entry entry : this.available) {
+            entry.handle.delete();
+        }
+        this.available.clear();
+
+        this.fantasy.removeWorldPool(this);
+    }
+
+    void tick() {
+        if (this.closed) {
+            return;
+        }
+
+        this.evictIdle();
+        this.refill();
+    }
+
+    private void evictIdle() {
+        int idleTimeout = this.settings.idleTimeout;
+        if (idleTimeout <= 0) {
+            return;
+        }
+
+        int time = this.server.getTickCount();
+
+        Iterator<Entry> iterator = this.available.iterator();
+        while (iterator.hasNext() && this.available.size() > this.settings.lowWaterMark) {
+            Entry entry = iterator.next();
+            if (time - entry.readyTime >= idleTimeout) {
+                iterator.remove();
+                entry.handle.delete();
+                this.evictions++;
+            }
+        }
+    }
+
+    private void refill() {
+        int count = this.available.size() + this.pending;
+        if (count < this.settings.lowWaterMark) {
+            this.refilling = true;
+        } else if (count >= this.settings.highWaterMark) {
+            this.refilling = false;
+        }
+
+        if (!this.refilling) {
+            return;
+        }
+
+        int budget = Math.min(this.settings.refillPerTick, this.settings.highWaterMark - count);
+        for (int i = 0; i < budget; i++) {
+            this.pending++;
+            this.fantasy.openTemporaryWorldAsync(this.template.createConfig()).whenCompleteAsync((handle, throwable) -> {
+                this.pending--;
+                if (throwable != null) {
+                    Fantasy.LOGGER.error("Failed to open pooled world", throwable);
+                    return;
+                }
+
+                if (this.closed) {
+                    handle.delete();
+                } else {
+                    ((FantasyWorldAccess) handle.asWorld()).fantasy$setDormant(true);
+                    this.available.addLast(new Entry(handle, this.server.getTickCount()));
+                }
+            }, this.server);
+        }
+    }
+
+    /**
+     * @return how many worlds were handed out directly from the pool
+     */
+    public long getHitCount() {
+        return this.hits;
+    }
+
+    /**
+     * @return how many worlds had to be opened on demand because the pool was empty
+     */
+    public long getMissCount() {
+        return this.misses;
+    }
+
+    /**
+     * @return how many idle worlds were deleted by the pool
+     */
+    public long getEvictionCount() {
+        return this.evictions;
+    }
+
+    /**
+     * @return how many worlds are ready to be handed out right now
+     */
+    public int getAvailableCount() {
+        return this.available.size();
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    private record Entry(RuntimeWorldHandle handle, int readyTime) {
+    }
+
+    /**
+     * Settings controlling the size and refill behavior of a {@link RuntimeWorldPool}.
+     */
+    public static final class Settings {
+        private int lowWaterMark = 1;
+        private int highWaterMark = 2;
+        private int refillPerTick = 1;
+        private int idleTimeout = 20 * 60 * 5;
+
+        /**
+         * Sets the amount of ready worlds below which the pool starts refilling
+         *
+         * @param lowWaterMark The minimum amount of ready worlds to keep
+         *
+         * @return The same instance of Settings
+         */
+        public Settings setLowWaterMark(int lowWaterMark) {
+            Preconditions.checkArgument(lowWaterMark >= 0, "low water mark must not be negative");
+            this.lowWaterMark = lowWaterMark;
+            this.highWaterMark = Math.max(this.highWaterMark, lowWaterMark);
+            return this;
+        }
+
+        /**
+         * Sets the amount of ready worlds the pool refills up to
+         *
+         * @param highWaterMark The maximum amount of ready worlds to keep
+         *
+         * @return The same instance of Settings
+         */
+        public Settings setHighWaterMark(int highWaterMark) {
+            Preconditions.checkArgument(highWaterMark >= 0, "high water mark must not be negative");
+            this.highWaterMark = highWaterMark;
+            this.lowWaterMark = Math.min(this.lowWaterMark, highWaterMark);
+            return this;
+        }
+
+        /**
+         * Sets both water marks to the same value, keeping the pool at a fixed size
+         *
+         * @param size The amount of ready worlds to keep
+         *
+         * @return The same instance of Settings
+         */
+        public Settings setSize(int size) {
+            return this.setHighWaterMark(size).setLowWaterMark(size);
+        }
+
+        /**
+         * Sets how many world creations the pool may start per server tick while refilling
+         *
+         * @param refillPerTick The amount of worlds to start opening per tick
+         *
+         * @return The same instance of Settings
+         */
+        public Settings setRefillPerTick(int refillPerTick) {
+            Preconditions.checkArgument(refillPerTick > 0, "refill budget must be positive");
+            this.refillPerTick = refillPerTick;
+            return this;
+        }
+
+        /**
+         * Sets after how many ticks an unused world is deleted, as long as more than the low water mark are ready
+         *
+         * @param idleTimeout The idle timeout in ticks, or 0 to never evict worlds
+         *
+         * @return The same instance of Settings
+         */
+        public Settings setIdleTimeout(int idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public int getLowWaterMark() {
+            return this.lowWaterMark;
+        }
+
+        public int getHighWaterMark() {
+            return this.highWaterMark;
+        }
+
+        public int getRefillPerTick() {
+            return this.refillPerTick;
+        }
+
+        public int getIdleTimeout() {
+            return this.idleTimeout;
+        }
+
+        Settings copy() {
+            Settings copy = new Settings();
+            copy.lowWaterMark = this.lowWaterMark;
+            copy.highWaterMark = this.highWaterMark;
+            copy.refillPerTick = this.refillPerTick;
+            copy.idleTimeout = this.idleTimeout;
+            return copy;
+        }
+    }
+}
@@ -1,20 +1,22 @@
 package xyz.nucleoid.fantasy;
 
 import net.minecraft.world.Difficulty;
+import net.minecraft.world.flag.FeatureFlagSet;
 import net.minecraft.world.level.gamerules.GameRules;
 import net.minecraft.world.level.storage.DerivedLevelData;
 import net.minecraft.world.level.storage.WorldData;
+import org.jetbrains.annotations.Nullable;
 
 public final class RuntimeWorldProperties extends DerivedLevelData {
     final RuntimeWorldConfig config;
-    private final GameRules rules;
+    private final FeatureFlagSet enabledFeatures;
+    @Nullable
+    private GameRules rules;
 
     public RuntimeWorldProperties(WorldData saveProperties, RuntimeWorldConfig config) {
         super(saveProperties, saveProperties.overworldData());
         this.config = config;
-
-        this.rules = new GameRules(saveProperties.enabledFeatures());
-        config.getGameRules().applyTo(this.rules, null);
+        this.enabledFeatures = saveProperties.enabledFeatures();
     }
 
     @Override
@@ -22,7 +24,13 @@ public final class RuntimeWorldProperties extends DerivedLevelData {
         if (this.config.shouldMirrorOverworldGameRules()) {
             return super.getGameRules();
         }
-        return this.rules;
+
+        GameRules rules = this.rules;
+        if (rules == null) {
+            // worlds mirroring the overworld never need their own rules
+            this.rules = rules = this.config.createGameRules(this.enabledFeatures);
+        }
+        return rules;
     }
 
     @Override
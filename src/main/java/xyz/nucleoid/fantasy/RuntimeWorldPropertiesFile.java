@@ -0,0 +1,205 @@
+package xyz.nucleoid.fantasy;
+
+import com.mojang.serialization.Codec;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.Identifier;
+import net.minecraft.world.Difficulty;
+import net.minecraft.world.level.gamerules.GameRule;
+import net.minecraft.world.level.storage.ServerLevelData;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.fantasy.util.GameRuleStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stores the time, weather, difficulty and changed game rules of a persistent runtime world in a small file in its
+ * dimension directory, as runtime worlds keep these in their {@link RuntimeWorldConfig} rather than in the level data
+ * of the server.
+ * <p>
+ * Only game rules which differ from the value set in the config, or from their default value, are stored. The value
+ * configured at the time is stored alongside them, such that a later change to the config wins over the stored value.
+ * <p>
+ * The file is read when the world is opened and written on the IO worker whenever the world is saved with changed
+ * properties. Several saves which happen before the IO worker gets to them are coalesced into a single write of the
+ * latest properties.
+ */
+final class RuntimeWorldPropertiesFile {
+    private static final String FILE_NAME = "fantasy_properties.dat";
+
+    private final Path path;
+    private final FantasyIoWorker ioWorker;
+    // the rules set by the config, before any stored values have been applied to it
+    private final GameRuleStore configuredRules;
+
+    private final AtomicReference<Pending> pending = new AtomicReference<>();
+    @Nullable
+    private CompoundTag lastSaved;
+    private long version;
+    private long writtenVersion = -1;
+
+    RuntimeWorldPropertiesFile(Path dimensionPath, FantasyIoWorker ioWorker, RuntimeWorldConfig config) {
+        this.path = dimensionPath.resolve(FILE_NAME);
+        this.ioWorker = ioWorker;
+        this.configuredRules = config.getGameRules().copy();
+    }
+
+    /**
+     * Applies the properties stored for a world onto a copy of the config it is about to be constructed with, leaving
+     * the given config untouched.
+     *
+     * @param config the config this file has been created for
+     * @return the config to construct the world with, which is the given one if nothing is stored
+     */
+    RuntimeWorldConfig load(RuntimeWorldConfig config) {
+        Path path = this.path;
+        if (!Files.exists(path)) {
+            return config;
+        }
+
+        CompoundTag tag;
+        try {
+            tag = NbtIo.read(path);
+        } catch (IOException e) {
+            Fantasy.LOGGER.warn("Failed to read world properties from {}", path, e);
+            return config;
+        }
+        if (tag == null) {
+            return config;
+        }
+
+        config = config.copy();
+        config.setTimeOfDay(tag.getLongOr("day_time", config.getTimeOfDay()));
+        config.setSunny(tag.getIntOr("clear_weather_time", config.getSunnyTime()));
+        config.setRaining(tag.getIntOr("rain_time", config.getRainTime()));
+        config.setRaining(tag.getBooleanOr("raining", config.isRaining()));
+        config.setThundering(tag.getIntOr("thunder_time", config.getThunderTime()));
+        config.setThundering(tag.getBooleanOr("thundering", config.isThundering()));
+        config.setDifficulty(Difficulty.byId(tag.getIntOr("difficulty", config.getDifficulty().getId())));
+
+        CompoundTag gameRules = tag.getCompoundOrEmpty("game_rules");
+        CompoundTag configuredGameRules = tag.getCompoundOrEmpty("configured_game_rules");
+        for (String key : gameRules.keySet()) {
+            Identifier id = Identifier.tryParse(key);
+            GameRule<?> rule = id != null ? BuiltInRegistries.GAME_RULE.getValue(id) : null;
+            Tag value = gameRules.get(key);
+            // the config has changed the rule since it was stored, so the stored value is outdated
+            if (rule == null || value == null || !Objects.equals(configuredGameRules.get(key), this.encodeConfiguredRule(rule))) {
+                continue;
+            }
+            loadGameRule(config, rule, value);
+        }
+        return config;
+    }
+
+    @Nullable
+    private Tag encodeConfiguredRule(GameRule<?> rule) {
+        Object configured = this.configuredRules.get(rule);
+        return configured != null ? encodeGameRule(rule, configured) : null;
+    }
+
+    private static <T> void loadGameRule(RuntimeWorldConfig config, GameRule<T> rule, Tag tag) {
+        rule.valueCodec().parse(NbtOps.INSTANCE, tag).ifSuccess(value -> config.setGameRule(rule, value));
+    }
+
+    /**
+     * Writes the current properties of the world if they have changed since the last save. Flushing saves write the
+     * file right away, while all others are queued on the IO worker.
+     */
+    void save(RuntimeWorld world, boolean flush) {
+        CompoundTag tag = this.write(world);
+        if (tag.equals(this.lastSaved)) {
+            return;
+        }
+        this.lastSaved = tag;
+
+        Pending pending = new Pending(++this.version, tag);
+        if (flush) {
+            this.pending.set(null);
+            this.write(pending);
+        } else if (this.pending.getAndSet(pending) == null) {
+            this.ioWorker.submit(() -> {
+                Pending latest = this.pending.getAndSet(null);
+                if (latest != null) {
+                    this.write(latest);
+                }
+            });
+        }
+    }
+
+    private synchronized void write(Pending pending) {
+        // a flush might already have written newer properties than a write that was queued before it
+        if (pending.version <= this.writtenVersion) {
+            return;
+        }
+        this.writtenVersion = pending.version;
+
+        try {
+            Files.createDirectories(this.path.getParent());
+            Path temporary = this.path.resolveSibling(FILE_NAME + ".tmp");
+            NbtIo.write(pending.tag, temporary);
+            Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Fantasy.LOGGER.warn("Failed to save world properties to {}", this.path, e);
+        }
+    }
+
+    private CompoundTag write(RuntimeWorld world) {
+        ServerLevelData properties = world.getServerLevelData();
+
+        CompoundTag tag = new CompoundTag();
+        tag.putLong("day_time", properties.getDayTime());
+        tag.putInt("clear_weather_time", properties.getClearWeatherTime());
+        tag.putBoolean("raining", properties.isRaining());
+        tag.putInt("rain_time", properties.getRainTime());
+        tag.putBoolean("thundering", properties.isThundering());
+        tag.putInt("thunder_time", properties.getThunderTime());
+        tag.putInt("difficulty", properties.getDifficulty().getId());
+
+        RuntimeWorldConfig config = ((RuntimeWorldProperties) properties).config;
+        GameRuleStore overrides = config.shouldMirrorOverworldGameRules() ? null : ((FantasyGameRules) properties.getGameRules()).fantasy$getOverrides();
+        if (overrides != null) {
+            CompoundTag gameRules = new CompoundTag();
+            CompoundTag configuredGameRules = new CompoundTag();
+            // every rule set in the config or changed in the world is set in the overrides, all others are unchanged
+            overrides.forEach((rule, value) -> {
+                Object configured = this.configuredRules.get(rule);
+                if (value.equals(configured != null ? configured : rule.defaultValue())) {
+                    return;
+                }
+
+                Identifier id = BuiltInRegistries.GAME_RULE.getKey(rule);
+                Tag encoded = encodeGameRule(rule, value);
+                if (id != null && encoded != null) {
+                    gameRules.put(id.toString(), encoded);
+                    Tag encodedConfigured = configured != null ? encodeGameRule(rule, configured) : null;
+                    if (encodedConfigured != null) {
+                        configuredGameRules.put(id.toString(), encodedConfigured);
+                    }
+                }
+            });
+            tag.put("game_rules", gameRules);
+            tag.put("configured_game_rules", configuredGameRules);
+        }
+
+        return tag;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Tag encodeGameRule(GameRule<?> rule, Object value) {
+        Codec<Object> codec = ((GameRule<Object>) rule).valueCodec();
+        return codec.encodeStart(NbtOps.INSTANCE, value).result().orElse(null);
+    }
+
+    private record Pending(long version, CompoundTag tag) {
+    }
+}
@@ -0,0 +1,72 @@
+package xyz.nucleoid.fantasy;
+
+import net.minecraft.core.Holder;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.dimension.LevelStem;
+import net.minecraft.world.flag.FeatureFlagSet;
+import net.minecraft.world.level.gamerules.GameRules;
+
+/**
+ * A {@link RuntimeWorldConfig} which has been resolved against a server once, such that any amount of worlds can be
+ * opened from it without looking up the dimension type or preparing the game rules again.
+ * <p>
+ * Nothing in a template changes once it has been compiled, so templates can be shared between threads. Every world is
+ * opened with its own config from {@link RuntimeWorldTemplate#createConfig()}, as runtime worlds write their time and
+ * weather back into their config.
+ *
+ * @see RuntimeWorldConfig#compile(MinecraftServer)
+ */
+public final class RuntimeWorldTemplate {
+    // only ever copied, never modified or handed out
+    private final RuntimeWorldConfig config;
+    private final Holder<DimensionType> dimensionType;
+    private final ChunkGenerator generator;
+    private final long seed;
+    private final GameRules gameRules;
+
+    RuntimeWorldTemplate(RuntimeWorldConfig config, Holder<DimensionType> dimensionType, FeatureFlagSet enabledFeatures) {
+        this.config = config;
+        this.dimensionType = dimensionType;
+        this.generator = config.getGenerator();
+        this.seed = config.getSeed();
+
+        // never changed after this, as every world writes into its own override layer on top of it
+        this.gameRules = new GameRules(enabledFeatures);
+        config.getGameRules().applyTo(this.gameRules, null);
+    }
+
+    /**
+     * Creates a new config for a single world opened from this template
+     *
+     * @return A new instance of RuntimeWorldConfig with the values of this template
+     */
+    public RuntimeWorldConfig createConfig() {
+        RuntimeWorldConfig config = this.config.copy();
+        config.compiledTemplate = this;
+        return config;
+    }
+
+    LevelStem createDimensionOptions() {
+        // the dimension registry tells its values apart by identity and every world keeps its own save flags on them,
+        // so every world needs its own instance even though nothing has to be resolved for it anymore
+        return new LevelStem(this.dimensionType, this.generator);
+    }
+
+    GameRules getGameRules() {
+        return this.gameRules;
+    }
+
+    public Holder<DimensionType> getDimensionType() {
+        return this.dimensionType;
+    }
+
+    public ChunkGenerator getGenerator() {
+        return this.generator;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+}
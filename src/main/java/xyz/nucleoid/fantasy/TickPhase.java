@@ -0,0 +1,33 @@
+package xyz.nucleoid.fantasy;
+
+/**
+ * The parts of a world tick which are measured separately by the tick profiler.
+ *
+ * @see RuntimeWorldHandle#getTickProfile()
+ */
+public enum TickPhase {
+    /**
+     * The whole world tick.
+     */
+    TOTAL,
+    /**
+     * Advancing the weather cycle and the time of day.
+     */
+    TIME,
+    /**
+     * Ticking the chunk source, including chunk loading, random ticks, mob spawning and chunk unloading.
+     */
+    CHUNK_SOURCE,
+    /**
+     * Running scheduled block and fluid ticks.
+     */
+    BLOCK_TICKS,
+    /**
+     * Ticking all entities.
+     */
+    ENTITIES,
+    /**
+     * Ticking all block entities.
+     */
+    BLOCK_ENTITIES
+}
@@ -0,0 +1,46 @@
+package xyz.nucleoid.fantasy;
+
+/**
+ * How important it is for a runtime world to keep its tick rate while the server is falling behind.
+ * <p>
+ * Whenever the average server tick takes longer than the tick budget, worlds with a lower priority are ticked less
+ * often, such that worlds with a higher priority keep their tick budget. Worlds are staggered across server ticks, so
+ * that slowed down worlds do not all tick on the same server tick.
+ *
+ * @see RuntimeWorldConfig#setTickPriority(TickPriority)
+ */
+public enum TickPriority {
+    /**
+     * The world is always ticked at its configured tick rate, like vanilla worlds.
+     */
+    HIGH(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY),
+    /**
+     * The world is slowed down once the server is considerably behind.
+     */
+    NORMAL(1.25F, 1.5F),
+    /**
+     * The world is slowed down as soon as the server gets close to its tick budget.
+     */
+    LOW(0.9F, 1.0F);
+
+    private final float slowLoad;
+    private final float stallLoad;
+
+    TickPriority(float slowLoad, float stallLoad) {
+        this.slowLoad = slowLoad;
+        this.stallLoad = stallLoad;
+    }
+
+    /**
+     * @param load the average server tick time relative to the tick budget
+     * @return by how much the tick interval of a world with this priority should be multiplied under the given load
+     */
+    int getIntervalMultiplier(float load) {
+        if (load >= this.stallLoad) {
+            return 4;
+        } else if (load >= this.slowLoad) {
+            return 2;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,46 @@
+package xyz.nucleoid.fantasy;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A snapshot of the tick times of a single world over the last profiled ticks, split up by {@link TickPhase}.
+ * All times are in nanoseconds.
+ *
+ * @see RuntimeWorldHandle#getTickProfile()
+ */
+public final class TickProfile {
+    public static final TickProfile EMPTY = new TickProfile(new EnumMap<>(TickPhase.class), 0, 0);
+
+    private final Map<TickPhase, Stats> stats;
+    private final int sampleCount;
+    private final long overheadNanos;
+
+    TickProfile(Map<TickPhase, Stats> stats, int sampleCount, long overheadNanos) {
+        this.stats = stats;
+        this.sampleCount = sampleCount;
+        this.overheadNanos = overheadNanos;
+    }
+
+    public Stats get(TickPhase phase) {
+        return this.stats.getOrDefault(phase, Stats.EMPTY);
+    }
+
+    /**
+     * @return the amount of ticks this profile covers
+     */
+    public int getSampleCount() {
+        return this.sampleCount;
+    }
+
+    /**
+     * @return the estimated time the profiler itself added to every tick of the world
+     */
+    public long getOverheadNanos() {
+        return this.overheadNanos;
+    }
+
+    public record Stats(long p50, long p99, long max) {
+        public static final Stats EMPTY = new Stats(0, 0, 0);
+    }
+}
@@ -0,0 +1,29 @@
+package xyz.nucleoid.fantasy;
+
+/**
+ * The stages a persistent world goes through while it is being unloaded.
+ *
+ * @see RuntimeWorldHandle#getUnloadStage()
+ */
+public enum UnloadStage {
+    /**
+     * The world is not being unloaded.
+     */
+    NONE,
+    /**
+     * The world has stopped ticking and players are being moved out of it.
+     */
+    STOPPING,
+    /**
+     * Chunk tickets have been released and chunks are being saved and unloaded under a per-tick time budget.
+     */
+    DRAINING,
+    /**
+     * All chunks have been unloaded and pending chunk writes are being flushed to disk in the background.
+     */
+    FLUSHING,
+    /**
+     * The world has been removed from the server and the dimension registry.
+     */
+    UNLOADED
+}
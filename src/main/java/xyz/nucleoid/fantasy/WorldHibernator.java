@@ -0,0 +1,138 @@
+package xyz.nucleoid.fantasy;
+
+import net.minecraft.server.level.ServerChunkCache;
+import xyz.nucleoid.fantasy.mixin.ServerLevelAccess;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves a runtime world into hibernation once it has been empty for a configured amount of ticks.
+ * <p>
+ * A hibernating world has saved and evicted all of its chunks, which also empties its entity sections and light
+ * engine, and is no longer visited by the server tick loop at all. It wakes up as soon as a player enters it or a
+ * chunk ticket is added to it.
+ *
+ * @see RuntimeWorldConfig#setHibernationDelay(int)
+ */
+final class WorldHibernator {
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final RuntimeWorld world;
+    private final int hibernationDelay;
+
+    private State state = State.AWAKE;
+    private int idleTicks;
+    private boolean ticked;
+    private boolean flushed;
+
+    private long wakeStartTime = -1;
+    private long lastWakeLatency;
+
+    WorldHibernator(RuntimeWorld world, int hibernationDelay) {
+        this.world = world;
+        this.hibernationDelay = hibernationDelay;
+    }
+
+    void tick() {
+        switch (this.state) {
+            case AWAKE -> {
+                if (this.isIdle()) {
+                    if (++this.idleTicks >= this.hibernationDelay) {
+                        this.state = State.DRAINING;
+                    }
+                } else {
+                    this.idleTicks = 0;
+                }
+            }
+            case DRAINING -> this.drain();
+            case FLUSHING -> {
+                if (this.flushed) {
+                    this.state = State.HIBERNATING;
+                    this.world.invalidateLevelSnapshot();
+                    Fantasy.LOGGER.debug("World {} is hibernating", this.world.dimension().identifier());
+                }
+            }
+            case HIBERNATING -> {
+            }
+        }
+        this.ticked = false;
+    }
+
+    private boolean isIdle() {
+        return this.world.players().isEmpty()
+                && this.world.getForceLoadedChunks().isEmpty()
+                && !((FantasyWorldAccess) this.world).fantasy$isDormant();
+    }
+
+    private void drain() {
+        if (!this.isIdle()) {
+            this.wake();
+            return;
+        }
+
+        ServerChunkCache chunkSource = this.world.getChunkSource();
+        if (!this.ticked) {
+            // an empty world may have stopped ticking, in which case chunks need to be unloaded from here
+            long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+            chunkSource.tick(() -> System.nanoTime() < deadline, false);
+            ((ServerLevelAccess) this.world).getEntityManager().tick();
+        }
+
+        if (chunkSource.getLoadedChunksCount() <= 0 && !chunkSource.chunkMap.hasWork()) {
+            this.state = State.FLUSHING;
+            this.flushed = false;
+            chunkSource.chunkMap.synchronize(true).whenCompleteAsync((result, throwable) -> {
+                if (throwable != null) {
+                    Fantasy.LOGGER.warn("Failed to flush chunk storage of hibernating world", throwable);
+                }
+                this.flushed = true;
+            }, this.world.getServer());
+        }
+    }
+
+    /**
+     * Wakes the world up if it is hibernating or about to, and starts measuring how long it takes until the world
+     * ticks again.
+     */
+    void wake() {
+        State state = this.state;
+        this.idleTicks = 0;
+        if (state == State.AWAKE) {
+            return;
+        }
+
+        this.state = State.AWAKE;
+        if (state == State.HIBERNATING || state == State.FLUSHING) {
+            this.wakeStartTime = System.nanoTime();
+            this.world.invalidateLevelSnapshot();
+        }
+    }
+
+    void onTick() {
+        this.ticked = true;
+        if (this.wakeStartTime != -1) {
+            this.lastWakeLatency = System.nanoTime() - this.wakeStartTime;
+            this.wakeStartTime = -1;
+            Fantasy.LOGGER.debug("World {} woke up from hibernation in {}us", this.world.dimension().identifier(), TimeUnit.NANOSECONDS.toMicros(this.lastWakeLatency));
+        }
+    }
+
+    boolean isHibernating() {
+        return this.state == State.HIBERNATING;
+    }
+
+    boolean isDraining() {
+        return this.state == State.DRAINING || this.state == State.FLUSHING;
+    }
+
+    long getLastWakeLatency() {
+        return this.lastWakeLatency;
+    }
+
+    private enum State {
+        AWAKE,
+        DRAINING,
+        FLUSHING,
+        HIBERNATING
+    }
+}
@@ -0,0 +1,177 @@
+package xyz.nucleoid.fantasy;
+
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.ProblemReporter;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntitySpawnReason;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.storage.ServerLevelData;
+import net.minecraft.world.level.storage.TagValueInput;
+import net.minecraft.world.level.storage.ValueInput;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a {@link WorldSnapshot} back into its world across several server ticks, such that restoring a large world
+ * never blocks the server thread for longer than {@link WorldRestorer#TICK_BUDGET_NANOS}.
+ * <p>
+ * Entities are removed right away, and the captured entities are only spawned again once all chunks have been
+ * restored, so that they never end up inside of blocks which are still to be restored.
+ * <p>
+ * Chunks which are no longer loaded are requested in the background and held loaded until they have been restored,
+ * rather than being loaded synchronously within the budget.
+ */
+final class WorldRestorer {
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int MAX_PENDING_LOADS = 16;
+
+    private final RuntimeWorld world;
+    private final WorldSnapshot snapshot;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private ObjectIterator<ChunkSnapshot> chunks;
+    private final Queue<ChunkSnapshot> loadedChunks = new ArrayDeque<>();
+    private int pendingLoads;
+
+    WorldRestorer(RuntimeWorld world, WorldSnapshot snapshot) {
+        this.world = world;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Advances the restore by one step.
+     *
+     * @return whether the world has been fully restored
+     */
+    boolean tick() {
+        if (this.future.isDone()) {
+            return true;
+        }
+
+        if (this.chunks == null) {
+            this.start();
+        }
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+
+        ChunkSnapshot loaded;
+        while ((loaded = this.loadedChunks.poll()) != null) {
+            ChunkPos pos = loaded.getPos();
+            try {
+                this.restoreIfLoaded(loaded);
+            } finally {
+                this.world.releaseChunk(pos.x, pos.z);
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+
+        ObjectIterator<ChunkSnapshot> chunks = this.chunks;
+        while (chunks.hasNext() && this.pendingLoads < MAX_PENDING_LOADS) {
+            ChunkSnapshot chunk = chunks.next();
+            if (!this.restoreIfLoaded(chunk)) {
+                this.load(chunk);
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+
+        if (chunks.hasNext() || this.pendingLoads > 0 || !this.loadedChunks.isEmpty()) {
+            return false;
+        }
+
+        this.spawnEntities();
+        this.future.complete(null);
+        return true;
+    }
+
+    private void start() {
+        List<Entity> entities = new ArrayList<>();
+        for (Entity entity : this.world.getAllEntities()) {
+            if (!(entity instanceof Player)) {
+                entities.add(entity);
+            }
+        }
+        for (Entity entity : entities) {
+            entity.discard();
+        }
+
+        WorldSnapshot snapshot = this.snapshot;
+        ServerLevelData properties = this.world.getServerLevelData();
+        properties.setDayTime(snapshot.dayTime);
+        properties.setClearWeatherTime(snapshot.clearWeatherTime);
+        properties.setRaining(snapshot.raining);
+        properties.setRainTime(snapshot.rainTime);
+        properties.setThundering(snapshot.thundering);
+        properties.setThunderTime(snapshot.thunderTime);
+
+        this.chunks = snapshot.chunks.values().iterator();
+    }
+
+    private boolean restoreIfLoaded(ChunkSnapshot snapshot) {
+        ChunkPos pos = snapshot.getPos();
+        LevelChunk chunk = this.world.getChunkSource().getChunkNow(pos.x, pos.z);
+        if (chunk == null) {
+            return false;
+        }
+        snapshot.restore(this.world, chunk);
+        return true;
+    }
+
+    private void load(ChunkSnapshot snapshot) {
+        ChunkPos pos = snapshot.getPos();
+        this.pendingLoads++;
+        this.world.acquireChunk(pos.x, pos.z).whenCompleteAsync((result, throwable) -> {
+            this.pendingLoads--;
+            if (this.future.isDone()) {
+                this.world.releaseChunk(pos.x, pos.z);
+            } else if (throwable != null) {
+                Fantasy.LOGGER.warn("Failed to load chunk {} to restore it in {}", pos, this.world.dimension().identifier(), throwable);
+                this.world.releaseChunk(pos.x, pos.z);
+            } else if (!result.isSuccess()) {
+                Fantasy.LOGGER.warn("Failed to load chunk {} to restore it in {}: {}", pos, this.world.dimension().identifier(), result.getError());
+                this.world.releaseChunk(pos.x, pos.z);
+            } else {
+                this.loadedChunks.add(snapshot);
+            }
+        }, this.world.getServer());
+    }
+
+    private void spawnEntities() {
+        for (CompoundTag tag : this.snapshot.entities) {
+            ValueInput input = TagValueInput.create(ProblemReporter.DISCARDING, this.world.registryAccess(), tag);
+            Entity entity = EntityType.loadEntityRecursive(input, this.world, EntitySpawnReason.LOAD, e -> e);
+            if (entity != null && !this.world.tryAddFreshEntityWithPassengers(entity)) {
+                Fantasy.LOGGER.debug("Could not restore entity {} in world {}", entity.getUUID(), this.world.dimension().identifier());
+            }
+        }
+    }
+
+    /**
+     * Stops restoring the world, leaving it partially restored.
+     */
+    void cancel() {
+        this.future.cancel(false);
+
+        ChunkSnapshot loaded;
+        while ((loaded = this.loadedChunks.poll()) != null) {
+            ChunkPos pos = loaded.getPos();
+            this.world.releaseChunk(pos.x, pos.z);
+        }
+    }
+
+    CompletableFuture<Void> getFuture() {
+        return this.future;
+    }
+}
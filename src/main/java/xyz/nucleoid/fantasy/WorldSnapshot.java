@@ -0,0 +1,90 @@
+package xyz.nucleoid.fantasy;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.util.ProblemReporter;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.storage.ServerLevelData;
+import net.minecraft.world.level.storage.TagValueOutput;
+import xyz.nucleoid.fantasy.mixin.ChunkMapAccess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An in-memory checkpoint of a runtime world, holding the blocks and block entities of every chunk that was loaded,
+ * all entities except for players, and the time and weather of the world.
+ * <p>
+ * Snapshots are immutable and can be restored any number of times.
+ *
+ * @see RuntimeWorldHandle#snapshot()
+ * @see RuntimeWorldHandle#restore(WorldSnapshot)
+ */
+public final class WorldSnapshot {
+    final ResourceKey<Level> dimension;
+    final Long2ObjectMap<ChunkSnapshot> chunks;
+    final List<CompoundTag> entities;
+
+    final long dayTime;
+    final int clearWeatherTime;
+    final boolean raining;
+    final int rainTime;
+    final boolean thundering;
+    final int thunderTime;
+
+    private WorldSnapshot(ResourceKey<Level> dimension, Long2ObjectMap<ChunkSnapshot> chunks, List<CompoundTag> entities, ServerLevelData properties) {
+        this.dimension = dimension;
+        this.chunks = chunks;
+        this.entities = entities;
+        this.dayTime = properties.getDayTime();
+        this.clearWeatherTime = properties.getClearWeatherTime();
+        this.raining = properties.isRaining();
+        this.rainTime = properties.getRainTime();
+        this.thundering = properties.isThundering();
+        this.thunderTime = properties.getThunderTime();
+    }
+
+    static WorldSnapshot capture(RuntimeWorld world) {
+        Long2ObjectMap<ChunkSnapshot> chunks = new Long2ObjectLinkedOpenHashMap<>();
+        for (ChunkHolder holder : ((ChunkMapAccess) world.getChunkSource().chunkMap).invokeGetChunks()) {
+            if (holder.getLatestChunk() instanceof LevelChunk chunk) {
+                chunks.put(chunk.getPos().toLong(), ChunkSnapshot.capture(chunk, world.registryAccess()));
+            }
+        }
+
+        List<CompoundTag> entities = new ArrayList<>();
+        for (Entity entity : world.getAllEntities()) {
+            if (entity instanceof Player) {
+                continue;
+            }
+
+            // passengers are saved together with their vehicle
+            TagValueOutput output = TagValueOutput.createWithContext(ProblemReporter.DISCARDING, world.registryAccess());
+            if (entity.save(output)) {
+                entities.add(output.buildResult());
+            }
+        }
+
+        return new WorldSnapshot(world.dimension(), chunks, entities, world.getServerLevelData());
+    }
+
+    /**
+     * @return the amount of chunks captured in this snapshot
+     */
+    public int getChunkCount() {
+        return this.chunks.size();
+    }
+
+    /**
+     * @return the amount of entities captured in this snapshot, not counting passengers
+     */
+    public int getEntityCount() {
+        return this.entities.size();
+    }
+}
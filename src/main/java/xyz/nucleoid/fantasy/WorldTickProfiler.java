@@ -0,0 +1,110 @@
+package xyz.nucleoid.fantasy;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Keeps the tick times of a single runtime world over the last {@link WorldTickProfiler#WINDOW} ticks, from which
+ * percentiles are computed on demand.
+ * <p>
+ * Profiling is switched on and off for all worlds at once, and costs nothing but a field read per phase while off.
+ */
+@ApiStatus.Internal
+public final class WorldTickProfiler {
+    private static final int WINDOW = 200;
+    private static final TickPhase[] PHASES = TickPhase.values();
+    private static final int CALIBRATION_SAMPLES = 10_000;
+
+    private static volatile boolean enabled;
+    private static long timingCostNanos;
+    private static volatile long calibrationSink;
+
+    private final long[][] samples = new long[PHASES.length][WINDOW];
+    private final long[] current = new long[PHASES.length];
+    private int currentTimings;
+    private final int[] timings = new int[WINDOW];
+    private int index;
+    private int count;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(boolean enabled) {
+        if (enabled && timingCostNanos == 0) {
+            timingCostNanos = calibrate();
+        }
+        WorldTickProfiler.enabled = enabled;
+    }
+
+    /**
+     * Measures how long taking a single timestamp takes on this machine.
+     */
+    private static long calibrate() {
+        long start = System.nanoTime();
+        long sink = 0;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            sink += System.nanoTime();
+        }
+        long elapsed = System.nanoTime() - start;
+        calibrationSink = sink;
+        return Math.max(elapsed / CALIBRATION_SAMPLES, 1);
+    }
+
+    public void record(TickPhase phase, long nanos) {
+        this.current[phase.ordinal()] += nanos;
+        this.currentTimings++;
+    }
+
+    /**
+     * Completes the current tick, moving all phase times recorded since the last tick into the window.
+     */
+    void commit(long totalNanos) {
+        long[] current = this.current;
+        current[TickPhase.TOTAL.ordinal()] = totalNanos;
+
+        int index = this.index;
+        for (int phase = 0; phase < current.length; phase++) {
+            this.samples[phase][index] = current[phase];
+        }
+        Arrays.fill(current, 0);
+
+        // every phase timing takes two timestamps, as does the total
+        this.timings[index] = this.currentTimings + 1;
+        this.currentTimings = 0;
+
+        this.index = (index + 1) % WINDOW;
+        this.count = Math.min(this.count + 1, WINDOW);
+    }
+
+    TickProfile snapshot() {
+        int count = this.count;
+        if (count == 0) {
+            return TickProfile.EMPTY;
+        }
+
+        Map<TickPhase, TickProfile.Stats> stats = new EnumMap<>(TickPhase.class);
+        long[] sorted = new long[count];
+        for (TickPhase phase : PHASES) {
+            System.arraycopy(this.samples[phase.ordinal()], 0, sorted, 0, count);
+            Arrays.sort(sorted);
+            stats.put(phase, new TickProfile.Stats(percentile(sorted, 0.5), percentile(sorted, 0.99), sorted[count - 1]));
+        }
+
+        long totalTimings = 0;
+        for (int i = 0; i < count; i++) {
+            totalTimings += this.timings[i];
+        }
+        long overhead = totalTimings * 2 * timingCostNanos / count;
+
+        return new TickProfile(stats, count, overhead);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+}
@@ -0,0 +1,171 @@
+package xyz.nucleoid.fantasy;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import xyz.nucleoid.fantasy.jfr.WorldUnloadEvent;
+import xyz.nucleoid.fantasy.mixin.ServerLevelAccess;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the unloading of a single persistent world across several server ticks, such that saving a large world never
+ * blocks the server thread for longer than {@link WorldUnloader#TICK_BUDGET_NANOS}.
+ *
+ * @see UnloadStage
+ */
+final class WorldUnloader {
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Fantasy fantasy;
+    private final MinecraftServer server;
+    private final RuntimeWorldManager worldManager;
+    private final ServerLevel world;
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final WorldUnloadEvent event = new WorldUnloadEvent();
+
+    private volatile UnloadStage stage = UnloadStage.STOPPING;
+    private int initialChunkCount;
+    private boolean flushed;
+    private boolean cancelled;
+    private boolean stopped;
+    private boolean previousTickWhenEmpty;
+
+    WorldUnloader(Fantasy fantasy, MinecraftServer server, RuntimeWorldManager worldManager, ServerLevel world) {
+        this.fantasy = fantasy;
+        this.server = server;
+        this.worldManager = worldManager;
+        this.world = world;
+    }
+
+    /**
+     * Advances the unloading by one step.
+     *
+     * @return whether the world has been fully unloaded
+     */
+    boolean tick() {
+        return switch (this.stage) {
+            case STOPPING -> {
+                this.stop();
+                yield false;
+            }
+            case DRAINING -> {
+                this.drain();
+                yield false;
+            }
+            case FLUSHING -> {
+                if (this.flushed) {
+                    this.worldManager.unload(this.world);
+                    this.stage = UnloadStage.UNLOADED;
+                    this.event.commit();
+                    this.future.complete(null);
+                    yield true;
+                }
+                yield false;
+            }
+            case NONE, UNLOADED -> true;
+        };
+    }
+
+    private void stop() {
+        FantasyWorldAccess worldAccess = (FantasyWorldAccess) this.world;
+        worldAccess.fantasy$setDormant(true);
+        // chunk tasks must keep being processed while the world drains
+        this.previousTickWhenEmpty = worldAccess.fantasy$getTickWhenEmpty();
+        this.stopped = true;
+        worldAccess.fantasy$setTickWhenEmpty(true);
+
+        this.world.noSave = false;
+        this.world.getChunkSource().deactivateTicketsOnClosing();
+        this.fantasy.kickPlayers(this.world);
+
+        this.initialChunkCount = Math.max(this.world.getChunkSource().getLoadedChunksCount(), 1);
+
+        if (this.event.isEnabled()) {
+            this.event.setWorld(this.world.dimension(), RuntimeWorldManager.styleOf(this.world));
+            this.event.loadedChunks = this.world.getChunkSource().getLoadedChunksCount();
+            this.event.begin();
+        }
+        this.stage = UnloadStage.DRAINING;
+    }
+
+    private void drain() {
+        this.fantasy.kickPlayers(this.world);
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        ServerChunkCache chunkSource = this.world.getChunkSource();
+        chunkSource.tick(() -> System.nanoTime() < deadline, false);
+        ((ServerLevelAccess) this.world).getEntityManager().tick();
+
+        if (this.world.players().isEmpty() && chunkSource.getLoadedChunksCount() <= 0 && !chunkSource.chunkMap.hasWork()) {
+            this.flush();
+        }
+    }
+
+    private void flush() {
+        this.stage = UnloadStage.FLUSHING;
+
+        // all chunks have been saved while unloading, so this only writes the remaining world data without blocking
+        this.world.save(null, false, false);
+
+        this.world.getChunkSource().chunkMap.synchronize(true).whenCompleteAsync((result, throwable) -> {
+            if (throwable != null) {
+                Fantasy.LOGGER.warn("Failed to flush chunk storage of unloaded world", throwable);
+            }
+            this.flushed = true;
+        }, this.server);
+    }
+
+    /**
+     * Stops unloading the world and lets it tick again. Has no effect once the world has been removed.
+     */
+    void cancel() {
+        if (this.stage == UnloadStage.UNLOADED || this.cancelled) {
+            return;
+        }
+
+        this.cancelled = true;
+        this.stage = UnloadStage.NONE;
+        FantasyWorldAccess worldAccess = (FantasyWorldAccess) this.world;
+        worldAccess.fantasy$setDormant(false);
+        if (this.stopped) {
+            worldAccess.fantasy$setTickWhenEmpty(this.previousTickWhenEmpty);
+        }
+        this.future.cancel(false);
+    }
+
+    /**
+     * Stops unloading the world as it is being deleted instead, which removes it from the server all the same. The
+     * world is left stopped, and nothing more is saved for it.
+     */
+    void abort() {
+        if (this.stage == UnloadStage.UNLOADED || this.cancelled) {
+            return;
+        }
+
+        this.cancelled = true;
+        this.stage = UnloadStage.NONE;
+        this.future.complete(null);
+    }
+
+    UnloadStage getStage() {
+        return this.stage;
+    }
+
+    float getProgress() {
+        return switch (this.stage) {
+            case NONE, STOPPING -> 0.0F;
+            case DRAINING -> {
+                int remaining = this.world.getChunkSource().getLoadedChunksCount();
+                yield 1.0F - Math.min((float) remaining / this.initialChunkCount, 1.0F);
+            }
+            case FLUSHING, UNLOADED -> 1.0F;
+        };
+    }
+
+    CompletableFuture<Void> getFuture() {
+        return this.future;
+    }
+}
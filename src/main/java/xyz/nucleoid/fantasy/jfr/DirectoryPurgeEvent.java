@@ -0,0 +1,23 @@
+package xyz.nucleoid.fantasy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+@Name("xyz.nucleoid.fantasy.DirectoryPurge")
+@Label("World Directory Purge")
+@Description("The directory of a deleted world is removed from disk")
+@Category({"Fantasy", "IO"})
+@StackTrace(false)
+public final class DirectoryPurgeEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Success")
+    public boolean success;
+}
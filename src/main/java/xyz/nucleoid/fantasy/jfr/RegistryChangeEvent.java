@@ -0,0 +1,29 @@
+package xyz.nucleoid.fantasy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+@Name("xyz.nucleoid.fantasy.RegistryChange")
+@Label("Dimension Registry Change")
+@Description("A dimension is inserted into or removed from the dimension registry")
+@Category({"Fantasy", "Registry"})
+@StackTrace(false)
+public final class RegistryChangeEvent extends Event {
+    public static final String INSERT = "insert";
+    public static final String REMOVE = "remove";
+
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Registry Size")
+    public int registrySize;
+}
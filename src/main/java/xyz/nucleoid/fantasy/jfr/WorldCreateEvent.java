@@ -0,0 +1,13 @@
+package xyz.nucleoid.fantasy.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+@Name("xyz.nucleoid.fantasy.WorldCreate")
+@Label("World Create")
+@Description("A runtime world is created, from preparing its dimension options until it is ready for use")
+public final class WorldCreateEvent extends WorldEvent {
+}
@@ -0,0 +1,20 @@
+package xyz.nucleoid.fantasy.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+@Name("xyz.nucleoid.fantasy.WorldCreatePhase")
+@Label("World Create Phase")
+@Description("A single phase of creating a runtime world")
+public final class WorldCreatePhaseEvent extends WorldEvent {
+    public static final String CREATE_DIMENSION_OPTIONS = "createDimensionOptions";
+    public static final String CONSTRUCT = "construct";
+    public static final String LOAD_EVENT = "loadEvent";
+    public static final String PRIMING_TICK = "primingTick";
+
+    @Label("Phase")
+    public String phase;
+}
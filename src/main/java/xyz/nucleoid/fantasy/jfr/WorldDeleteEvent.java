@@ -0,0 +1,13 @@
+package xyz.nucleoid.fantasy.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+@Name("xyz.nucleoid.fantasy.WorldDelete")
+@Label("World Delete")
+@Description("A runtime world is removed from the server before its files are deleted in the background")
+public final class WorldDeleteEvent extends WorldEvent {
+}
@@ -0,0 +1,31 @@
+package xyz.nucleoid.fantasy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Base for all flight recorder events describing a single runtime world.
+ */
+@ApiStatus.Internal
+@Category({"Fantasy", "World"})
+@StackTrace(false)
+public abstract class WorldEvent extends Event {
+    @Label("Dimension")
+    public String dimension;
+
+    @Label("Style")
+    public String style;
+
+    @Label("Loaded Chunks")
+    public int loadedChunks;
+
+    public void setWorld(ResourceKey<Level> dimension, String style) {
+        this.dimension = dimension.identifier().toString();
+        this.style = style;
+    }
+}
@@ -0,0 +1,18 @@
+package xyz.nucleoid.fantasy.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+@Name("xyz.nucleoid.fantasy.WorldTick")
+@Label("World Tick")
+@Description("A single tick of a runtime world")
+@Threshold("1 ms")
+public final class WorldTickEvent extends WorldEvent {
+    @Label("Isolated")
+    @Description("Whether the world was ticked in parallel to the server thread")
+    public boolean isolated;
+}
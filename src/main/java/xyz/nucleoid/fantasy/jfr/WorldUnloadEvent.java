@@ -0,0 +1,13 @@
+package xyz.nucleoid.fantasy.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+@Name("xyz.nucleoid.fantasy.WorldUnload")
+@Label("World Unload")
+@Description("A persistent runtime world is unloaded, from stopping it until it has been removed from the server")
+public final class WorldUnloadEvent extends WorldEvent {
+}
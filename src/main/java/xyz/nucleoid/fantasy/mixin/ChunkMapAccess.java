@@ -0,0 +1,12 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ChunkMap;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(ChunkMap.class)
+public interface ChunkMapAccess {
+    @Invoker
+    Iterable<ChunkHolder> invokeGetChunks();
+}
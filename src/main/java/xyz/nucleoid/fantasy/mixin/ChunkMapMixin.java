@@ -3,15 +3,28 @@ package xyz.nucleoid.fantasy.mixin;
 import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
 import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
 import com.llamalad7.mixinextras.sugar.Local;
+import net.minecraft.core.HolderGetter;
+import net.minecraft.core.HolderLookup;
 import net.minecraft.server.level.ChunkMap;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.chunk.ChunkGeneratorStructureState;
 import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.structure.StructureSet;
+import net.minecraft.world.level.levelgen.synth.NormalNoise;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import xyz.nucleoid.fantasy.util.ChunkGeneratorSettingsProvider;
+import xyz.nucleoid.fantasy.util.GeneratorStateCache;
 
 @Mixin(ChunkMap.class)
 public class ChunkMapMixin {
+    @Unique
+    private final GeneratorStateCache.Lease fantasy$generatorState = new GeneratorStateCache.Lease();
 
     @WrapOperation(method = "<init>", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/level/levelgen/NoiseGeneratorSettings;dummy()Lnet/minecraft/world/level/levelgen/NoiseGeneratorSettings;"))
     private NoiseGeneratorSettings fantasy$useProvidedChunkGeneratorSettings(Operation<NoiseGeneratorSettings> original, @Local(argsOnly = true) ChunkGenerator chunkGenerator) {
@@ -22,4 +35,19 @@ public class ChunkMapMixin {
 
         return original.call();
     }
+
+    @WrapOperation(method = "<init>", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/level/levelgen/RandomState;create(Lnet/minecraft/world/level/levelgen/NoiseGeneratorSettings;Lnet/minecraft/core/HolderGetter;J)Lnet/minecraft/world/level/levelgen/RandomState;"))
+    private RandomState fantasy$shareRandomState(NoiseGeneratorSettings settings, HolderGetter<NormalNoise.NoiseParameters> noises, long seed, Operation<RandomState> original) {
+        return this.fantasy$generatorState.randomState(settings, seed, () -> original.call(settings, noises, seed));
+    }
+
+    @WrapOperation(method = "<init>", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/level/chunk/ChunkGenerator;createState(Lnet/minecraft/core/HolderLookup;Lnet/minecraft/world/level/levelgen/RandomState;J)Lnet/minecraft/world/level/chunk/ChunkGeneratorStructureState;"))
+    private ChunkGeneratorStructureState fantasy$shareStructureState(ChunkGenerator generator, HolderLookup<StructureSet> structureSets, RandomState randomState, long seed, Operation<ChunkGeneratorStructureState> original, @Local(argsOnly = true) ServerLevel level) {
+        return this.fantasy$generatorState.structureState(generator, randomState, seed, level.registryAccess(), () -> original.call(generator, structureSets, randomState, seed));
+    }
+
+    @Inject(method = "close", at = @At("HEAD"))
+    private void fantasy$releaseGeneratorState(CallbackInfo ci) {
+        this.fantasy$generatorState.release();
+    }
 }
@@ -0,0 +1,41 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.server.level.GenerationChunkHolder;
+import net.minecraft.util.StaticCache2D;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.status.ChunkStatusTasks;
+import net.minecraft.world.level.chunk.status.ChunkStep;
+import net.minecraft.world.level.chunk.status.WorldGenContext;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xyz.nucleoid.fantasy.util.VoidChunkGenerator;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lets chunks of void worlds pass straight through every generation step which cannot change an empty chunk. Besides
+ * the generator calls themselves, this skips building a {@link net.minecraft.server.level.WorldGenRegion} per step
+ * and scanning all columns of the chunk to prime heightmaps, which already are correct for an empty chunk.
+ */
+@Mixin(ChunkStatusTasks.class)
+public class ChunkStatusTasksMixin {
+    @Inject(
+            method = {
+                    "generateStructureReferences",
+                    "generateNoise",
+                    "generateSurface",
+                    "generateCarvers",
+                    "generateFeatures",
+                    "generateSpawn"
+            },
+            at = @At("HEAD"),
+            cancellable = true
+    )
+    private static void fantasy$skipVoidGeneration(WorldGenContext context, ChunkStep step, StaticCache2D<GenerationChunkHolder> cache, ChunkAccess chunk, CallbackInfoReturnable<CompletableFuture<ChunkAccess>> cir) {
+        if (VoidChunkGenerator.canSkipGeneration(context.generator())) {
+            cir.setReturnValue(CompletableFuture.completedFuture(chunk));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.portal.TeleportTransition;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xyz.nucleoid.fantasy.ParallelWorldTicker;
+
+@Mixin(Entity.class)
+public abstract class EntityMixin {
+    @Shadow
+    public abstract Level level();
+
+    @Shadow
+    public abstract Entity teleport(TeleportTransition transition);
+
+    @Inject(method = "teleport(Lnet/minecraft/world/level/portal/TeleportTransition;)Lnet/minecraft/world/entity/Entity;", at = @At("HEAD"), cancellable = true)
+    private void deferCrossWorldTeleport(TeleportTransition transition, CallbackInfoReturnable<Entity> cir) {
+        // the target world may be ticking on another thread, so move the entity once all worlds have ticked
+        if (transition.newLevel() != this.level() && ParallelWorldTicker.deferToMergePoint(() -> this.teleport(transition))) {
+            cir.setReturnValue(null);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.gamerules.GameRule;
+import net.minecraft.world.level.gamerules.GameRules;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xyz.nucleoid.fantasy.FantasyGameRules;
+import xyz.nucleoid.fantasy.util.GameRuleStore;
+
+/**
+ * Layers the game rules of runtime worlds on top of shared rules, such as those of the template they were opened from,
+ * such that each world only stores the rules which have been set in it.
+ * <p>
+ * Only reading and writing single rules goes through the layers. Anything else working on the underlying map of the
+ * rules, such as encoding or copying them, sees the default values instead. The rules of runtime worlds are never
+ * saved with the level data, and Fantasy stores changed rules itself, so only other mods doing so are affected.
+ */
+@Mixin(GameRules.class)
+public class GameRulesMixin implements FantasyGameRules {
+    @Unique
+    @Nullable
+    private GameRules fantasy$base;
+    @Unique
+    @Nullable
+    private GameRuleStore fantasy$overrides;
+
+    @Override
+    public void fantasy$setBase(GameRules base, GameRuleStore overrides) {
+        this.fantasy$base = base;
+        this.fantasy$overrides = overrides;
+    }
+
+    @Override
+    @Nullable
+    public GameRuleStore fantasy$getOverrides() {
+        return this.fantasy$overrides;
+    }
+
+    @Inject(method = "get", at = @At("HEAD"), cancellable = true)
+    private void fantasy$getLayered(GameRule<?> rule, CallbackInfoReturnable<Object> cir) {
+        GameRuleStore overrides = this.fantasy$overrides;
+        if (overrides != null) {
+            cir.setReturnValue(overrides.getOr(rule, this.fantasy$base));
+        }
+    }
+
+    @Inject(method = "set", at = @At("HEAD"), cancellable = true)
+    private <T> void fantasy$setLayered(GameRule<T> rule, T value, @Nullable MinecraftServer server, CallbackInfo ci) {
+        GameRuleStore overrides = this.fantasy$overrides;
+        if (overrides != null) {
+            overrides.set(rule, value);
+            // notifies listeners the same way the vanilla implementation does after writing its own map
+            if (server != null) {
+                server.onGameRuleChanged(rule, value);
+            }
+            ci.cancel();
+        }
+    }
+}
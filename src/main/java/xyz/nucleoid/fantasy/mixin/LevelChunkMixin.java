@@ -0,0 +1,45 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import xyz.nucleoid.fantasy.ChunkResetTracker;
+import xyz.nucleoid.fantasy.RuntimeWorld;
+
+@Mixin(LevelChunk.class)
+public class LevelChunkMixin {
+    @Shadow
+    @Final
+    Level level;
+
+    @Inject(method = "setLoaded", at = @At("TAIL"))
+    private void fantasy$trackResetSnapshot(boolean loaded, CallbackInfo ci) {
+        if (this.level instanceof RuntimeWorld runtimeWorld) {
+            ChunkResetTracker tracker = runtimeWorld.getResetTracker();
+            if (tracker == null) {
+                return;
+            }
+
+            if (loaded) {
+                tracker.onChunkLoaded((LevelChunk) (Object) this);
+            } else {
+                tracker.onChunkUnloaded((LevelChunk) (Object) this);
+            }
+        }
+    }
+
+    @Inject(method = "markUnsaved", at = @At("HEAD"))
+    private void fantasy$trackModifiedChunk(CallbackInfo ci) {
+        if (this.level instanceof RuntimeWorld runtimeWorld) {
+            ChunkResetTracker tracker = runtimeWorld.getResetTracker();
+            if (tracker != null) {
+                tracker.onChunkModified((LevelChunk) (Object) this);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import net.minecraft.world.level.Level;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import xyz.nucleoid.fantasy.ParallelWorldTicker;
+
+@Mixin(Level.class)
+public class LevelMixin {
+    @ModifyExpressionValue(method = "getBlockEntity", at = @At(value = "FIELD", target = "Lnet/minecraft/world/level/Level;thread:Ljava/lang/Thread;"))
+    private Thread allowBlockEntitiesOnTickThread(Thread thread) {
+        return ParallelWorldTicker.isTickThreadFor((Level) (Object) this) ? Thread.currentThread() : thread;
+    }
+}
@@ -1,19 +1,104 @@
 package xyz.nucleoid.fantasy.mixin;
 
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Redirect;
+import xyz.nucleoid.fantasy.FantasyServerAccess;
+import xyz.nucleoid.fantasy.ParallelWorldTicker;
+import xyz.nucleoid.fantasy.RuntimeWorld;
 import xyz.nucleoid.fantasy.util.SafeIterator;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
 
 @Mixin(MinecraftServer.class)
-public class MinecraftServerMixin {
+public class MinecraftServerMixin implements FantasyServerAccess {
+    @Unique
+    private ServerLevel[] fantasy$levelSnapshot;
+    @Unique
+    private RuntimeWorld[] fantasy$isolatedSnapshot;
+    @Unique
+    private ServerLevel[] fantasy$levelSnapshotSource;
+    @Unique
+    private final ParallelWorldTicker fantasy$worldTicker = new ParallelWorldTicker();
+
     @Redirect(method = "tickChildren", at = @At(value = "INVOKE", target = "Ljava/lang/Iterable;iterator()Ljava/util/Iterator;", ordinal = 0), require = 0)
-    private Iterator<ServerLevel> fantasy$copyBeforeTicking(Iterable<ServerLevel> instance) {
-        return new SafeIterator<>((Collection<ServerLevel>) instance);
+    private Iterator<ServerLevel> fantasy$copyBeforeTicking(Iterable<ServerLevel> instance, BooleanSupplier haveTime) {
+        Collection<ServerLevel> levels = (Collection<ServerLevel>) instance;
+
+        // levels may also be added or replaced by vanilla or other mods without going through fantasy
+        ServerLevel[] snapshot = this.fantasy$levelSnapshot;
+        if (snapshot == null || !fantasy$isSnapshotOf(levels, this.fantasy$levelSnapshotSource)) {
+            List<RuntimeWorld> isolated = new ArrayList<>();
+            snapshot = fantasy$collectTickingLevels(levels, isolated);
+            this.fantasy$levelSnapshot = snapshot;
+            this.fantasy$isolatedSnapshot = isolated.toArray(new RuntimeWorld[0]);
+            this.fantasy$levelSnapshotSource = levels.toArray(new ServerLevel[0]);
+        }
+
+        // isolated worlds are done ticking before the server thread touches any other world
+        this.fantasy$worldTicker.tickAll(this.fantasy$isolatedSnapshot, haveTime);
+
+        return new SafeIterator<>(snapshot);
+    }
+
+    @Unique
+    private static boolean fantasy$isSnapshotOf(Collection<ServerLevel> levels, ServerLevel[] source) {
+        if (levels.size() != source.length) {
+            return false;
+        }
+
+        int index = 0;
+        for (ServerLevel level : levels) {
+            if (level != source[index++]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Unique
+    private static ServerLevel[] fantasy$collectTickingLevels(Collection<ServerLevel> levels, List<RuntimeWorld> isolated) {
+        List<ServerLevel> ticking = new ArrayList<>(levels.size());
+        for (ServerLevel level : levels) {
+            if (level instanceof RuntimeWorld runtimeWorld) {
+                if (runtimeWorld.isHibernating()) {
+                    continue;
+                } else if (runtimeWorld.isIsolated()) {
+                    isolated.add(runtimeWorld);
+                    continue;
+                }
+            }
+            ticking.add(level);
+        }
+        return ticking.toArray(new ServerLevel[0]);
+    }
+
+    @WrapOperation(method = "tickChildren", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/level/ServerLevel;tick(Ljava/util/function/BooleanSupplier;)V"))
+    private void fantasy$tickLevel(ServerLevel level, BooleanSupplier haveTime, Operation<Void> original) {
+        if (level instanceof RuntimeWorld runtimeWorld) {
+            // isolated worlds only end up here if the level snapshot could not be installed, and then tick serially
+            runtimeWorld.runTick(() -> original.call(level, haveTime));
+        } else {
+            original.call(level, haveTime);
+        }
+    }
+
+    @Override
+    public void fantasy$invalidateLevelSnapshot() {
+        this.fantasy$levelSnapshot = null;
+    }
+
+    @Override
+    public ParallelWorldTicker fantasy$getWorldTicker() {
+        return this.fantasy$worldTicker;
     }
 }
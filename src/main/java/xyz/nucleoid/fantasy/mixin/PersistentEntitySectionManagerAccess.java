@@ -0,0 +1,12 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.world.level.entity.EntityPersistentStorage;
+import net.minecraft.world.level.entity.PersistentEntitySectionManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(PersistentEntitySectionManager.class)
+public interface PersistentEntitySectionManagerAccess {
+    @Accessor
+    EntityPersistentStorage<?> getPermanentStorage();
+}
@@ -0,0 +1,35 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.players.PlayerList;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import xyz.nucleoid.fantasy.ParallelWorldTicker;
+
+@Mixin(PlayerList.class)
+public abstract class PlayerListMixin {
+    @Shadow
+    public abstract void broadcastAll(Packet<?> packet);
+
+    @Shadow
+    public abstract void broadcastSystemMessage(Component message, boolean overlay);
+
+    @Inject(method = "broadcastAll(Lnet/minecraft/network/protocol/Packet;)V", at = @At("HEAD"), cancellable = true)
+    private void deferBroadcast(Packet<?> packet, CallbackInfo ci) {
+        // players in other worlds may be ticking on another thread
+        if (ParallelWorldTicker.deferToMergePoint(() -> this.broadcastAll(packet))) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "broadcastSystemMessage(Lnet/minecraft/network/chat/Component;Z)V", at = @At("HEAD"), cancellable = true)
+    private void deferSystemMessage(Component message, boolean overlay, CallbackInfo ci) {
+        if (ParallelWorldTicker.deferToMergePoint(() -> this.broadcastSystemMessage(message, overlay))) {
+            ci.cancel();
+        }
+    }
+}
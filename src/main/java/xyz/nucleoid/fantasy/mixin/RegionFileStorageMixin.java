@@ -0,0 +1,167 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import com.llamalad7.mixinextras.injector.wrapmethod.WrapMethod;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.sugar.Local;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.StreamTagVisitor;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.storage.RegionFile;
+import net.minecraft.world.level.chunk.storage.RegionFileStorage;
+import net.minecraft.world.level.chunk.storage.RegionStorageInfo;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xyz.nucleoid.fantasy.storage.ChunkTemplate;
+import xyz.nucleoid.fantasy.storage.MemoryChunkStorage;
+import xyz.nucleoid.fantasy.storage.WorldDirectoryCloner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
+
+@Mixin(RegionFileStorage.class)
+public class RegionFileStorageMixin {
+    @Unique
+    @Nullable
+    private MemoryChunkStorage.Region fantasy$memory;
+    @Unique
+    @Nullable
+    private ChunkTemplate.Region fantasy$template;
+
+    @Unique
+    private final LongSet fantasy$privateRegions = new LongOpenHashSet();
+    @Unique
+    private int fantasy$cloneGeneration;
+
+    @Shadow
+    @Final
+    private Long2ObjectLinkedOpenHashMap<RegionFile> regionCache;
+
+    @Shadow
+    @Final
+    private Path folder;
+
+    @Shadow
+    @Nullable
+    public CompoundTag read(ChunkPos pos) throws IOException {
+        throw new AssertionError();
+    }
+
+    @Inject(method = "<init>", at = @At("TAIL"))
+    private void fantasy$attachStorage(RegionStorageInfo info, Path folder, boolean sync, CallbackInfo ci) {
+        this.fantasy$memory = MemoryChunkStorage.attach(info);
+        this.fantasy$template = ChunkTemplate.attach(info);
+    }
+
+    @Inject(method = "read", at = @At("HEAD"), cancellable = true)
+    private void fantasy$readFromMemory(ChunkPos pos, CallbackInfoReturnable<CompoundTag> cir) throws IOException {
+        MemoryChunkStorage.Region memory = this.fantasy$memory;
+        if (memory != null && !memory.isSpilled(pos)) {
+            CompoundTag tag = memory.read(pos);
+            if (tag == null && this.fantasy$template != null) {
+                tag = this.fantasy$template.read(pos);
+            }
+            cir.setReturnValue(tag);
+        }
+    }
+
+    @ModifyReturnValue(method = "read", at = @At("RETURN"))
+    private CompoundTag fantasy$readFromTemplate(@Nullable CompoundTag tag, @Local(argsOnly = true) ChunkPos pos) throws IOException {
+        ChunkTemplate.Region template = this.fantasy$template;
+        if (tag == null && template != null) {
+            return template.read(pos);
+        }
+        return tag;
+    }
+
+    @Inject(method = "scanChunk", at = @At("HEAD"), cancellable = true)
+    private void fantasy$scanFromMemory(ChunkPos pos, StreamTagVisitor visitor, CallbackInfo ci) throws IOException {
+        if (this.fantasy$template != null) {
+            // a chunk might either be stored privately or come from the template, which reading already resolves
+            CompoundTag tag = this.read(pos);
+            if (tag != null) {
+                tag.acceptAsRoot(visitor);
+            }
+            ci.cancel();
+            return;
+        }
+
+        MemoryChunkStorage.Region memory = this.fantasy$memory;
+        if (memory != null && !memory.isSpilled(pos)) {
+            memory.scan(pos, visitor);
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "write", at = @At("HEAD"), cancellable = true)
+    private void fantasy$writeToMemory(ChunkPos pos, @Nullable CompoundTag tag, CallbackInfo ci) throws IOException {
+        MemoryChunkStorage.Region memory = this.fantasy$memory;
+        if (memory != null && memory.write(pos, tag)) {
+            ci.cancel();
+        }
+    }
+
+    @WrapMethod(method = "write")
+    private void fantasy$lockAgainstCloning(ChunkPos pos, @Nullable CompoundTag tag, Operation<Void> original) {
+        // a region file linked while it is being written to would receive the rest of the write in both worlds
+        Lock lock = WorldDirectoryCloner.getRegionWriteLock();
+        lock.lock();
+        try {
+            original.call(pos, tag);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Inject(method = "write", at = @At("HEAD"))
+    private void fantasy$unshareClonedRegion(ChunkPos pos, @Nullable CompoundTag tag, CallbackInfo ci) throws IOException {
+        int regionX = pos.getRegionX();
+        int regionZ = pos.getRegionZ();
+        long regionKey = ChunkPos.asLong(regionX, regionZ);
+
+        // this world may have been cloned since, which links the regions it has already written to again
+        int cloneGeneration = WorldDirectoryCloner.getCloneGeneration();
+        if (cloneGeneration != this.fantasy$cloneGeneration) {
+            this.fantasy$privateRegions.clear();
+            this.fantasy$cloneGeneration = cloneGeneration;
+        }
+        if (!this.fantasy$privateRegions.add(regionKey)) {
+            return;
+        }
+
+        // region files of cloned worlds are hard links, which must be copied before they are written to
+        Path path = this.folder.resolve("r." + regionX + "." + regionZ + ".mca");
+        if (WorldDirectoryCloner.isShared(path)) {
+            RegionFile regionFile = this.regionCache.remove(regionKey);
+            if (regionFile != null) {
+                regionFile.close();
+            }
+            WorldDirectoryCloner.unshare(path);
+        }
+    }
+
+    @Inject(method = "close", at = @At("HEAD"))
+    private void fantasy$releaseStorage(CallbackInfo ci) {
+        MemoryChunkStorage.Region memory = this.fantasy$memory;
+        if (memory != null) {
+            memory.close();
+        }
+
+        ChunkTemplate.Region template = this.fantasy$template;
+        if (template != null) {
+            this.fantasy$template = null;
+            template.release();
+        }
+    }
+}
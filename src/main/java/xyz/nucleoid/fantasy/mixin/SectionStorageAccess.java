@@ -0,0 +1,12 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.world.level.chunk.storage.SectionStorage;
+import net.minecraft.world.level.chunk.storage.SimpleRegionStorage;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(SectionStorage.class)
+public interface SectionStorageAccess {
+    @Accessor
+    SimpleRegionStorage getSimpleRegionStorage();
+}
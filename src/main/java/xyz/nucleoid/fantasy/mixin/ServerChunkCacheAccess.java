@@ -0,0 +1,16 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.server.level.ChunkResult;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.concurrent.CompletableFuture;
+
+@Mixin(ServerChunkCache.class)
+public interface ServerChunkCacheAccess {
+    @Invoker
+    CompletableFuture<ChunkResult<ChunkAccess>> invokeGetChunkFutureMainThread(int x, int z, ChunkStatus status, boolean load);
+}
@@ -0,0 +1,21 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import net.minecraft.server.level.ServerChunkCache;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import xyz.nucleoid.fantasy.ParallelWorldTicker;
+
+@Mixin(targets = "net.minecraft.server.level.ServerChunkCache$MainThreadExecutor")
+public class ServerChunkCacheMainThreadExecutorMixin {
+    @Shadow
+    @Final
+    ServerChunkCache this$0;
+
+    @ModifyReturnValue(method = "getRunningThread", at = @At("RETURN"))
+    private Thread runChunkTasksOnTickThread(Thread thread) {
+        return ParallelWorldTicker.isTickThreadFor(this.this$0.getLevel()) ? Thread.currentThread() : thread;
+    }
+}
@@ -1,14 +1,21 @@
 package xyz.nucleoid.fantasy.mixin;
 
+import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
 import net.minecraft.server.level.ServerChunkCache;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import xyz.nucleoid.fantasy.FantasyWorldAccess;
+import xyz.nucleoid.fantasy.ParallelWorldTicker;
+import xyz.nucleoid.fantasy.RuntimeWorld;
 
 @Mixin(ServerChunkCache.class)
 public class ServerChunkCacheMixin {
@@ -18,8 +25,60 @@ public class ServerChunkCacheMixin {
 
     @Inject(method = "pollTask", at = @At("HEAD"), cancellable = true)
     private void executeQueuedTasks(CallbackInfoReturnable<Boolean> ci) {
-        if (!((FantasyWorldAccess) this.level).fantasy$shouldTick()) {
+        if (!((FantasyWorldAccess) this.level).fantasy$shouldTick()
+                && !(this.level instanceof RuntimeWorld runtimeWorld && runtimeWorld.hasPendingChunkLoads())) {
             ci.setReturnValue(false);
         }
     }
+
+    // injected separately, such that the mixin fails to apply if either of them can no longer be found
+    @Inject(method = "addTicketWithRadius", at = @At("HEAD"))
+    private void wakeOnTicketWithRadius(CallbackInfo ci) {
+        this.wakeOnTicket();
+    }
+
+    @Inject(method = "addTicket(Lnet/minecraft/server/level/Ticket;Lnet/minecraft/world/level/ChunkPos;)V", at = @At("HEAD"))
+    private void wakeOnTicket(CallbackInfo ci) {
+        this.wakeOnTicket();
+    }
+
+    @Unique
+    private void wakeOnTicket() {
+        // a hibernating world does not process chunk tasks, so anything waiting on the ticket would never finish
+        if (this.level instanceof RuntimeWorld runtimeWorld) {
+            runtimeWorld.wake();
+        }
+    }
+
+    @Inject(method = "getChunk(IILnet/minecraft/world/level/chunk/status/ChunkStatus;Z)Lnet/minecraft/world/level/chunk/ChunkAccess;", at = @At("HEAD"))
+    private void wakeOnChunkLoad(int x, int z, ChunkStatus status, boolean load, CallbackInfoReturnable<ChunkAccess> cir) {
+        // chunks of a hibernating world are not processed, so loading one would never finish
+        if (load && this.level instanceof RuntimeWorld runtimeWorld && runtimeWorld.isHibernating() && this.level.getServer().isSameThread()) {
+            runtimeWorld.wake();
+        }
+    }
+
+    // injected separately and required, as chunk loads of an isolated world would otherwise be queued to the server
+    // thread while it waits for that world to finish ticking
+    @ModifyExpressionValue(
+            method = "getChunk(IILnet/minecraft/world/level/chunk/status/ChunkStatus;Z)Lnet/minecraft/world/level/chunk/ChunkAccess;",
+            at = @At(value = "FIELD", target = "Lnet/minecraft/server/level/ServerChunkCache;mainThread:Ljava/lang/Thread;")
+    )
+    private Thread loadChunksOnTickThread(Thread mainThread) {
+        return this.getOwningThread(mainThread);
+    }
+
+    @ModifyExpressionValue(
+            method = "getChunkNow",
+            at = @At(value = "FIELD", target = "Lnet/minecraft/server/level/ServerChunkCache;mainThread:Ljava/lang/Thread;")
+    )
+    private Thread getChunksOnTickThread(Thread mainThread) {
+        return this.getOwningThread(mainThread);
+    }
+
+    @Unique
+    private Thread getOwningThread(Thread mainThread) {
+        // an isolated world owns its chunk cache while it is ticked in parallel
+        return ParallelWorldTicker.isTickThreadFor(this.level) ? Thread.currentThread() : mainThread;
+    }
 }
@@ -1,5 +1,7 @@
 package xyz.nucleoid.fantasy.mixin;
 
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
@@ -8,14 +10,23 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import xyz.nucleoid.fantasy.FantasyWorldAccess;
+import xyz.nucleoid.fantasy.RuntimeWorld;
+import xyz.nucleoid.fantasy.TickPhase;
+import xyz.nucleoid.fantasy.WorldTickProfiler;
 
 import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import net.minecraft.core.BlockPos;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.server.level.ServerChunkCache;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.server.players.PlayerList;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.entity.EntityTickList;
+import net.minecraft.world.ticks.LevelTicks;
 
 @Mixin(ServerLevel.class)
 public abstract class ServerLevelMixin implements FantasyWorldAccess {
@@ -26,6 +37,8 @@ public abstract class ServerLevelMixin implements FantasyWorldAccess {
     private boolean fantasy$tickWhenEmpty = true;
     @Unique
     private int fantasy$tickTimeout;
+    @Unique
+    private boolean fantasy$dormant;
 
     @Shadow
     public abstract List<ServerPlayer> players();
@@ -38,22 +51,68 @@ public abstract class ServerLevelMixin implements FantasyWorldAccess {
         this.fantasy$tickWhenEmpty = tickWhenEmpty;
     }
 
+    @Override
+    public boolean fantasy$getTickWhenEmpty() {
+        return this.fantasy$tickWhenEmpty;
+    }
+
+    @Override
+    public void fantasy$setDormant(boolean dormant) {
+        this.fantasy$dormant = dormant;
+    }
+
+    @Override
+    public boolean fantasy$isDormant() {
+        return this.fantasy$dormant;
+    }
+
     @Inject(method = "tick", at = @At("HEAD"), cancellable = true)
     private void tick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+        if (this.fantasy$dormant) {
+            ci.cancel();
+            return;
+        }
+
+        if ((Object) this instanceof RuntimeWorld runtimeWorld && !runtimeWorld.isScheduledToTick()) {
+            ci.cancel();
+            return;
+        }
+
         boolean shouldTick = this.fantasy$tickWhenEmpty || !this.isWorldEmpty();
         if (shouldTick) {
             this.fantasy$tickTimeout = TICK_TIMEOUT;
         } else if (this.fantasy$tickTimeout-- <= 0) {
             ci.cancel();
+            return;
+        }
+
+        if ((Object) this instanceof RuntimeWorld runtimeWorld) {
+            runtimeWorld.onTick();
         }
     }
 
     @Override
     public boolean fantasy$shouldTick() {
+        if ((Object) this instanceof RuntimeWorld runtimeWorld) {
+            if (runtimeWorld.isHibernating()) {
+                return false;
+            } else if (runtimeWorld.isPreparingHibernation()) {
+                // chunks can only finish unloading while chunk tasks are processed
+                return true;
+            }
+        }
+
         boolean shouldTick = this.fantasy$tickWhenEmpty || !this.isWorldEmpty();
         return shouldTick || this.fantasy$tickTimeout > 0;
     }
 
+    @Inject(method = "addPlayer", at = @At("HEAD"))
+    private void wakeOnPlayerEnter(ServerPlayer player, CallbackInfo ci) {
+        if ((Object) this instanceof RuntimeWorld runtimeWorld) {
+            runtimeWorld.wake();
+        }
+    }
+
     @Unique
     private boolean isWorldEmpty() {
         return this.players().isEmpty() && this.getChunkSource().getLoadedChunksCount() <= 0;
@@ -73,4 +132,58 @@ public abstract class ServerLevelMixin implements FantasyWorldAccess {
         // the rain effect will remain until the player changes dimension or reconnects.
         instance.broadcastAll(packet, this.getChunkSource().getLevel().dimension());
     }
+
+    @WrapOperation(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/level/ServerLevel;advanceWeatherCycle()V"))
+    private void profileWeather(ServerLevel level, Operation<Void> original) {
+        long start = this.fantasy$startPhase();
+        original.call(level);
+        this.fantasy$endPhase(TickPhase.TIME, start);
+    }
+
+    @WrapOperation(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/level/ServerLevel;tickTime()V"))
+    private void profileTime(ServerLevel level, Operation<Void> original) {
+        long start = this.fantasy$startPhase();
+        original.call(level);
+        this.fantasy$endPhase(TickPhase.TIME, start);
+    }
+
+    @WrapOperation(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/ticks/LevelTicks;tick(JILjava/util/function/BiConsumer;)V"))
+    private <T> void profileBlockTicks(LevelTicks<T> ticks, long time, int maxTicks, BiConsumer<BlockPos, T> ticker, Operation<Void> original) {
+        long start = this.fantasy$startPhase();
+        original.call(ticks, time, maxTicks, ticker);
+        this.fantasy$endPhase(TickPhase.BLOCK_TICKS, start);
+    }
+
+    @WrapOperation(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/level/ServerChunkCache;tick(Ljava/util/function/BooleanSupplier;Z)V"))
+    private void profileChunkSource(ServerChunkCache chunkSource, BooleanSupplier haveTime, boolean tickChunks, Operation<Void> original) {
+        long start = this.fantasy$startPhase();
+        original.call(chunkSource, haveTime, tickChunks);
+        this.fantasy$endPhase(TickPhase.CHUNK_SOURCE, start);
+    }
+
+    @WrapOperation(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/level/entity/EntityTickList;forEach(Ljava/util/function/Consumer;)V"))
+    private void profileEntities(EntityTickList entities, Consumer<Entity> action, Operation<Void> original) {
+        long start = this.fantasy$startPhase();
+        original.call(entities, action);
+        this.fantasy$endPhase(TickPhase.ENTITIES, start);
+    }
+
+    @WrapOperation(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/level/ServerLevel;tickBlockEntities()V"))
+    private void profileBlockEntities(ServerLevel level, Operation<Void> original) {
+        long start = this.fantasy$startPhase();
+        original.call(level);
+        this.fantasy$endPhase(TickPhase.BLOCK_ENTITIES, start);
+    }
+
+    @Unique
+    private long fantasy$startPhase() {
+        return WorldTickProfiler.isEnabled() && (Object) this instanceof RuntimeWorld ? System.nanoTime() : Long.MIN_VALUE;
+    }
+
+    @Unique
+    private void fantasy$endPhase(TickPhase phase, long start) {
+        if (start != Long.MIN_VALUE) {
+            ((RuntimeWorld) (Object) this).getTickProfiler().record(phase, System.nanoTime() - start);
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.portal.TeleportTransition;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xyz.nucleoid.fantasy.ParallelWorldTicker;
+
+@Mixin(ServerPlayer.class)
+public abstract class ServerPlayerMixin {
+    @Shadow
+    public abstract ServerPlayer teleport(TeleportTransition transition);
+
+    @Inject(method = "teleport(Lnet/minecraft/world/level/portal/TeleportTransition;)Lnet/minecraft/server/level/ServerPlayer;", at = @At("HEAD"), cancellable = true)
+    private void deferCrossWorldTeleport(TeleportTransition transition, CallbackInfoReturnable<ServerPlayer> cir) {
+        ServerPlayer self = (ServerPlayer) (Object) this;
+        if (transition.newLevel() != self.level() && ParallelWorldTicker.deferToMergePoint(() -> this.teleport(transition))) {
+            cir.setReturnValue(null);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package xyz.nucleoid.fantasy.mixin.registry;
 
 import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
 import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import it.unimi.dsi.fastutil.objects.Reference2IntMap;
 import org.slf4j.Logger;
@@ -26,6 +29,11 @@ import net.minecraft.resources.ResourceKey;
 @Mixin(MappedRegistry.class)
 public abstract class MappedRegistryMixin<T> implements RemoveFromRegistry<T>, WritableRegistry<T> {
     @Unique private static final Logger fantasy$LOGGER = LogUtils.getLogger();
+    @Unique private static final int COMPACT_MIN_HOLES = 64;
+
+    @Unique private final IntArrayList fantasy$freeIds = new IntArrayList();
+    @Unique private int fantasy$holes;
+    @Unique private int fantasy$pendingId = -1;
 
     @Shadow @Final private Map<T, Holder.Reference<T>> byValue;
     @Shadow @Final private Map<Identifier, Holder.Reference<T>> byLocation;
@@ -49,7 +57,15 @@ public abstract class MappedRegistryMixin<T> implements RemoveFromRegistry<T>, W
             this.byLocation.remove(registryEntry.key().identifier());
             this.byValue.remove(entry);
             this.byId.set(rawId, null);
-            this.registrationInfos.remove(this.key);
+            this.registrationInfos.remove(registryEntry.key());
+
+            this.fantasy$freeIds.push(rawId);
+            this.fantasy$holes++;
+            this.fantasy$trimTrailingHoles();
+
+            if (this.fantasy$holes > COMPACT_MIN_HOLES && this.fantasy$holes > this.byId.size() / 2) {
+                this.fantasy$compact();
+            }
 
             return true;
         } catch (Throwable e) {
@@ -58,6 +74,68 @@ public abstract class MappedRegistryMixin<T> implements RemoveFromRegistry<T>, W
         }
     }
 
+    @WrapOperation(method = "register", at = @At(value = "INVOKE", target = "Lit/unimi/dsi/fastutil/objects/ObjectList;size()I"))
+    private int fantasy$reuseFreeId(ObjectList<Holder.Reference<T>> byId, Operation<Integer> original) {
+        IntArrayList freeIds = this.fantasy$freeIds;
+        while (!freeIds.isEmpty()) {
+            int rawId = freeIds.popInt();
+            // ids may be stale after trailing holes have been trimmed
+            if (rawId < byId.size() && byId.get(rawId) == null) {
+                this.fantasy$holes--;
+                this.fantasy$pendingId = rawId;
+                return rawId;
+            }
+        }
+
+        return original.call(byId);
+    }
+
+    @WrapOperation(method = "register", at = @At(value = "INVOKE", target = "Lit/unimi/dsi/fastutil/objects/ObjectList;add(Ljava/lang/Object;)Z"))
+    private boolean fantasy$fillFreeId(ObjectList<Holder.Reference<T>> byId, Object reference, Operation<Boolean> original) {
+        int rawId = this.fantasy$pendingId;
+        if (rawId != -1) {
+            this.fantasy$pendingId = -1;
+            //noinspection unchecked
+            byId.set(rawId, (Holder.Reference<T>) reference);
+            return true;
+        }
+
+        return original.call(byId, reference);
+    }
+
+    @Unique
+    private void fantasy$trimTrailingHoles() {
+        ObjectList<Holder.Reference<T>> byId = this.byId;
+        int size = byId.size();
+        while (size > 0 && byId.get(size - 1) == null) {
+            size--;
+            this.fantasy$holes--;
+        }
+        byId.size(size);
+    }
+
+    /**
+     * Moves all entries to the front of the raw id list, assigning them new raw ids in their original order.
+     */
+    @Unique
+    private void fantasy$compact() {
+        ObjectList<Holder.Reference<T>> byId = this.byId;
+
+        int size = 0;
+        for (int i = 0; i < byId.size(); i++) {
+            Holder.Reference<T> reference = byId.get(i);
+            if (reference != null) {
+                byId.set(size, reference);
+                this.toId.put(reference.value(), size);
+                size++;
+            }
+        }
+        byId.size(size);
+
+        this.fantasy$freeIds.clear();
+        this.fantasy$holes = 0;
+    }
+
     @Override
     public boolean fantasy$remove(Identifier key) {
         var entry = this.byLocation.get(key);
@@ -0,0 +1,173 @@
+package xyz.nucleoid.fantasy.storage;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.Identifier;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.storage.RegionFileStorage;
+import net.minecraft.world.level.chunk.storage.RegionStorageInfo;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.fantasy.Fantasy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A read-only world directory which is shared by several runtime worlds. Every world reads the chunks it has not
+ * written itself from the template, so opening another instance of the same map neither copies its files nor parses
+ * its chunks again, and each instance only stores the chunks which have actually been changed in it.
+ * <p>
+ * The most recently read chunks of a template are kept parsed in memory while any world uses it, and every world
+ * receives its own copy when loading a chunk. Older chunks are read from the region files again when needed, such
+ * that memory does not grow with the size of the template.
+ *
+ * @see xyz.nucleoid.fantasy.RuntimeWorldConfig#setTemplate(Path)
+ */
+@ApiStatus.Internal
+public final class ChunkTemplate {
+    private static final int CACHE_CAPACITY = 1024;
+    private static final ResourceKey<Level> TEMPLATE_DIMENSION = ResourceKey.create(Registries.DIMENSION, Identifier.fromNamespaceAndPath(Fantasy.ID, "template"));
+
+    private static final Map<Path, ChunkTemplate> TEMPLATES = new HashMap<>();
+    private static final Map<ResourceKey<Level>, ChunkTemplate> CONSTRUCTING = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final Map<String, Region> regions = new HashMap<>();
+    private int references;
+
+    private ChunkTemplate(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Makes every region storage created for the given dimension read from the template at the given directory, until
+     * {@link #endConstruct} is called. Region storages are created while the world is constructed.
+     */
+    public static void beginConstruct(ResourceKey<Level> dimension, Path directory) {
+        Path key = directory.toAbsolutePath().normalize();
+        ChunkTemplate template;
+        synchronized (TEMPLATES) {
+            template = TEMPLATES.computeIfAbsent(key, ChunkTemplate::new);
+            // held until the construction ends, such that the template is released again if it fails before attaching
+            template.references++;
+        }
+        CONSTRUCTING.put(dimension, template);
+    }
+
+    public static void endConstruct(ResourceKey<Level> dimension) {
+        ChunkTemplate template = CONSTRUCTING.remove(dimension);
+        if (template != null) {
+            template.release();
+        }
+    }
+
+    /**
+     * @return the template region for a newly created region storage, or {@code null} if the world has no template
+     */
+    @Nullable
+    public static Region attach(RegionStorageInfo info) {
+        ChunkTemplate template = CONSTRUCTING.get(info.dimension());
+        if (template == null) {
+            return null;
+        }
+
+        synchronized (TEMPLATES) {
+            template.references++;
+            return template.regions.computeIfAbsent(info.type(), template::createRegion);
+        }
+    }
+
+    private Region createRegion(String type) {
+        // the chunk storage of a dimension is called "chunk" but lives in the "region" directory
+        Path folder = this.directory.resolve(type.equals("chunk") ? "region" : type);
+        return new Region(new RegionStorageInfo(this.directory.toString(), TEMPLATE_DIMENSION, type), folder);
+    }
+
+    private void release() {
+        synchronized (TEMPLATES) {
+            if (--this.references > 0) {
+                return;
+            }
+
+            TEMPLATES.remove(this.directory);
+            for (Region region : this.regions.values()) {
+                region.close();
+            }
+            this.regions.clear();
+        }
+    }
+
+    /**
+     * The part of a template backing a single region storage, such as the chunks or the entities of a world.
+     */
+    public final class Region {
+        private final RegionStorageInfo info;
+        private final Path folder;
+        private final Long2ObjectLinkedOpenHashMap<Optional<CompoundTag>> cache = new Long2ObjectLinkedOpenHashMap<>();
+
+        @Nullable
+        private RegionFileStorage storage;
+
+        private Region(RegionStorageInfo info, Path folder) {
+            this.info = info;
+            this.folder = folder;
+        }
+
+        /**
+         * @return a copy of the chunk in the template, or {@code null} if the template does not contain it
+         */
+        @Nullable
+        public CompoundTag read(ChunkPos pos) throws IOException {
+            // cached tags are never modified, so they can be copied outside the lock
+            return this.load(pos).map(CompoundTag::copy).orElse(null);
+        }
+
+        private synchronized Optional<CompoundTag> load(ChunkPos pos) throws IOException {
+            long key = pos.toLong();
+            Optional<CompoundTag> cached = this.cache.getAndMoveToLast(key);
+            if (cached != null) {
+                return cached;
+            }
+
+            RegionFileStorage storage = this.storage;
+            if (storage == null) {
+                // the template is never written to, so there is no point in syncing
+                this.storage = storage = new RegionFileStorage(this.info, this.folder, false);
+            }
+
+            cached = Optional.ofNullable(storage.read(pos));
+            this.cache.putAndMoveToLast(key, cached);
+            if (this.cache.size() > CACHE_CAPACITY) {
+                this.cache.removeFirst();
+            }
+            return cached;
+        }
+
+        /**
+         * Releases the template once the world reading from it has closed its storage.
+         */
+        public void release() {
+            ChunkTemplate.this.release();
+        }
+
+        private synchronized void close() {
+            this.cache.clear();
+            if (this.storage != null) {
+                try {
+                    this.storage.close();
+                } catch (IOException e) {
+                    Fantasy.LOGGER.warn("Failed to close template storage {}", this.folder, e);
+                }
+                this.storage = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package xyz.nucleoid.fantasy.storage;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.StreamTagVisitor;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.storage.RegionStorageInfo;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Keeps the chunk, entity and point of interest data evicted from a temporary world compressed in memory, instead of
+ * writing it into region files that are deleted again anyway.
+ * <p>
+ * Once the store has reached its capacity, any chunk which does not fit anymore is spilled to its region file as
+ * usual, and is read back from there from then on. Chunks which have never been written are known to not exist, so a
+ * world which never exceeds its capacity does not touch the file system at all.
+ *
+ * @see xyz.nucleoid.fantasy.RuntimeWorldConfig#setMemoryStorage(long)
+ */
+@ApiStatus.Internal
+public final class MemoryChunkStorage {
+    private static final Map<ResourceKey<Level>, MemoryChunkStorage> CONSTRUCTING = new ConcurrentHashMap<>();
+
+    private final long capacity;
+    private final boolean offHeap;
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    public MemoryChunkStorage(long capacity, boolean offHeap) {
+        this.capacity = capacity;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Makes every region storage created for the given dimension use this store, until {@link #endConstruct} is
+     * called. Region storages are created while the world is constructed.
+     */
+    public void beginConstruct(ResourceKey<Level> dimension) {
+        CONSTRUCTING.put(dimension, this);
+    }
+
+    public static void endConstruct(ResourceKey<Level> dimension) {
+        CONSTRUCTING.remove(dimension);
+    }
+
+    /**
+     * @return the store for a newly created region storage, or {@code null} if it should only use region files
+     */
+    @Nullable
+    public static Region attach(RegionStorageInfo info) {
+        MemoryChunkStorage storage = CONSTRUCTING.get(info.dimension());
+        return storage != null ? storage.new Region() : null;
+    }
+
+    public long getUsedBytes() {
+        return this.usedBytes.get();
+    }
+
+    private boolean tryReserve(int bytes) {
+        long used;
+        do {
+            used = this.usedBytes.get();
+            if (used + bytes > this.capacity) {
+                return false;
+            }
+        } while (!this.usedBytes.compareAndSet(used, used + bytes));
+        return true;
+    }
+
+    private void release(@Nullable ByteBuffer data) {
+        if (data != null) {
+            this.usedBytes.addAndGet(-data.capacity());
+        }
+    }
+
+    private ByteBuffer allocate(byte[] bytes) {
+        if (this.offHeap) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            return buffer;
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static byte[] compress(CompoundTag tag) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream output = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            NbtIo.write(tag, output);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream decompress(ByteBuffer data) {
+        byte[] bytes;
+        if (data.hasArray()) {
+            bytes = data.array();
+        } else {
+            bytes = new byte[data.capacity()];
+            data.duplicate().clear().get(bytes);
+        }
+        return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * The part of the store backing a single region storage, such as the chunks or the entities of a world.
+     */
+    public final class Region {
+        private final Long2ObjectMap<ByteBuffer> chunks = new Long2ObjectOpenHashMap<>();
+        private final LongSet spilled = new LongOpenHashSet();
+
+        /**
+         * @return whether the chunk has been written to its region file and has to be accessed there
+         */
+        public synchronized boolean isSpilled(ChunkPos pos) {
+            return this.spilled.contains(pos.toLong());
+        }
+
+        @Nullable
+        public CompoundTag read(ChunkPos pos) throws IOException {
+            ByteBuffer data;
+            synchronized (this) {
+                data = this.chunks.get(pos.toLong());
+            }
+            if (data == null) {
+                return null;
+            }
+
+            try (DataInputStream input = decompress(data)) {
+                return NbtIo.read(input, NbtAccounter.unlimitedHeap());
+            }
+        }
+
+        public void scan(ChunkPos pos, StreamTagVisitor visitor) throws IOException {
+            ByteBuffer data;
+            synchronized (this) {
+                data = this.chunks.get(pos.toLong());
+            }
+            if (data == null) {
+                return;
+            }
+
+            try (DataInputStream input = decompress(data)) {
+                NbtIo.parse(input, visitor, NbtAccounter.unlimitedHeap());
+            }
+        }
+
+        /**
+         * Stores or removes the given chunk, unless it has to go to the region file.
+         *
+         * @return whether the chunk has been handled, otherwise it must be written to the region file
+         */
+        public boolean write(ChunkPos pos, @Nullable CompoundTag tag) throws IOException {
+            long key = pos.toLong();
+            if (tag == null) {
+                synchronized (this) {
+                    release(this.chunks.remove(key));
+                    return !this.spilled.contains(key);
+                }
+            }
+
+            if (this.isSpilled(pos)) {
+                return false;
+            }
+
+            byte[] compressed = compress(tag);
+            synchronized (this) {
+                release(this.chunks.remove(key));
+                if (!tryReserve(compressed.length)) {
+                    this.spilled.add(key);
+                    return false;
+                }
+                this.chunks.put(key, allocate(compressed));
+            }
+            return true;
+        }
+
+        public synchronized void close() {
+            for (ByteBuffer data : this.chunks.values()) {
+                release(data);
+            }
+            this.chunks.clear();
+        }
+    }
+}
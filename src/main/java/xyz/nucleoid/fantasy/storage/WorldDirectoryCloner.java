@@ -0,0 +1,136 @@
+package xyz.nucleoid.fantasy.storage;
+
+import org.jetbrains.annotations.ApiStatus;
+import xyz.nucleoid.fantasy.Fantasy;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clones world directories by hard linking their region files instead of copying them, such that cloning takes the
+ * same time regardless of how large the world is.
+ * <p>
+ * A hard linked region file is shared between the source and the clone until either of them writes to it, at which
+ * point the writing world first replaces its link by a private copy of the file. Region files are not written to while
+ * a directory is being cloned, such that no write can go through a link created in the meantime.
+ * <p>
+ * If hard links are not supported, or the file system cannot report how often a file is linked, the files are copied
+ * instead, which the file system may still turn into a reflink.
+ */
+@ApiStatus.Internal
+public final class WorldDirectoryCloner {
+    private static final String REGION_FILE_EXTENSION = ".mca";
+
+    // held shared by region file writes and exclusively while cloning
+    private static final ReadWriteLock CLONE_LOCK = new ReentrantReadWriteLock();
+    private static final AtomicInteger CLONE_GENERATION = new AtomicInteger();
+
+    private WorldDirectoryCloner() {
+    }
+
+    /**
+     * Clones the given world directory into a new directory.
+     *
+     * @return the amount of region files that have been linked rather than copied
+     * @throws FileAlreadyExistsException if the target directory exists already
+     */
+    public static int cloneDirectory(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+
+        int[] linked = new int[1];
+        Lock lock = CLONE_LOCK.writeLock();
+        lock.lock();
+        try {
+            cloneFiles(source, target, linked);
+        } finally {
+            CLONE_GENERATION.incrementAndGet();
+            lock.unlock();
+        }
+
+        return linked[0];
+    }
+
+    private static void cloneFiles(Path source, Path target, int[] linked) throws IOException {
+        Files.createDirectories(target);
+        // a shared file could not be told apart from a private one, so both worlds would write into the same file
+        boolean canCountLinks = Files.getFileStore(target).supportsFileAttributeView("unix");
+
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            private boolean linksSupported = canCountLinks;
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(directory)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Path clone = target.resolve(source.relativize(file));
+                if (this.linksSupported && file.getFileName().toString().endsWith(REGION_FILE_EXTENSION)) {
+                    try {
+                        Files.createLink(clone, file);
+                        linked[0]++;
+                        return FileVisitResult.CONTINUE;
+                    } catch (UnsupportedOperationException | FileSystemException e) {
+                        // for example when the target is on another file store, so copy everything from here on
+                        Fantasy.LOGGER.debug("Could not hard link {}, falling back to copying", file, e);
+                        this.linksSupported = false;
+                    }
+                }
+
+                Files.copy(file, clone, StandardCopyOption.COPY_ATTRIBUTES);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * @return a value which changes whenever a clone has finished, after which any region file that was known to be
+     * private before may be shared
+     */
+    public static int getCloneGeneration() {
+        return CLONE_GENERATION.get();
+    }
+
+    /**
+     * @return the lock to hold while writing to a region file, which keeps it from being linked during the write
+     */
+    public static Lock getRegionWriteLock() {
+        return CLONE_LOCK.readLock();
+    }
+
+    /**
+     * @return whether the given file is linked from more than one directory
+     */
+    public static boolean isShared(Path file) {
+        try {
+            Object links = Files.getAttribute(file, "unix:nlink");
+            return links instanceof Integer count && count > 1;
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the given hard linked file by a private copy, leaving all other links to it untouched.
+     */
+    public static void unshare(Path file) throws IOException {
+        Path copy = file.resolveSibling(file.getFileName() + ".cow");
+        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(copy, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -6,28 +6,157 @@ import net.minecraft.world.level.gamerules.GameRule;
 import net.minecraft.world.level.gamerules.GameRules;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.BiConsumer;
+
+/**
+ * A set of game rule values, stored unboxed for boolean and integer rules.
+ * <br/>
+ * Copies of a {@link GameRuleStore#freeze() frozen} store share its values until they are changed, without the frozen
+ * store ever being written to, such that it can be copied from any thread.
+ */
 public final class GameRuleStore {
-    private final Reference2ObjectMap<GameRule<?>, Object> rules = new Reference2ObjectOpenHashMap<>();
+    private static final byte ABSENT_BOOLEAN = -1;
+    private static final int ABSENT_INT = Integer.MIN_VALUE;
+
+    private Reference2ByteOpenHashMap<GameRule<?>> booleans;
+    private Reference2IntOpenHashMap<GameRule<?>> ints;
+    private Reference2ObjectOpenHashMap<GameRule<?>, Object> objects;
+    // whether the maps belong to a frozen store, and must be copied before writing
+    private boolean shared;
+    private boolean frozen;
+
+    public GameRuleStore() {
+        this(new Reference2ByteOpenHashMap<>(), new Reference2IntOpenHashMap<>(), new Reference2ObjectOpenHashMap<>());
+        this.booleans.defaultReturnValue(ABSENT_BOOLEAN);
+        this.ints.defaultReturnValue(ABSENT_INT);
+    }
+
+    // the maps might be shared with a frozen store, so they must already have their default values set
+    private GameRuleStore(Reference2ByteOpenHashMap<GameRule<?>> booleans, Reference2IntOpenHashMap<GameRule<?>> ints, Reference2ObjectOpenHashMap<GameRule<?>, Object> objects) {
+        this.booleans = booleans;
+        this.ints = ints;
+        this.objects = objects;
+    }
 
     public <T> void set(GameRule<T> key, T value) {
-        this.rules.put(key, value);
+        if (this.frozen) {
+            throw new UnsupportedOperationException("game rule store is frozen");
+        }
+
+        this.unshare();
+        this.remove(key);
+        if (value instanceof Boolean bool) {
+            this.booleans.put(key, bool ? (byte) 1 : (byte) 0);
+        } else if (value instanceof Integer integer) {
+            this.ints.put(key, integer.intValue());
+        } else {
+            this.objects.put(key, value);
+        }
+    }
+
+    private void remove(GameRule<?> key) {
+        this.booleans.removeByte(key);
+        this.ints.removeInt(key);
+        this.objects.remove(key);
+    }
+
+    /**
+     * @return the value of the given rule, or {@code null} if it is not set in this store
+     */
+    @Nullable
+    public <T> T get(GameRule<T> key) {
+        return this.getOr(key, null);
     }
 
+    /**
+     * Looks up the given rule with a single lookup in the map matching its type, and falls back to the given rules if
+     * it is not set in this store.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOr(GameRule<T> key, @Nullable GameRules fallback) {
+        Object defaultValue = key.defaultValue();
+        if (defaultValue instanceof Boolean) {
+            byte value = this.booleans.getByte(key);
+            if (value != ABSENT_BOOLEAN) {
+                return (T) Boolean.valueOf(value != 0);
+            }
+        } else if (defaultValue instanceof Integer) {
+            int value = this.ints.getInt(key);
+            if (value != ABSENT_INT || this.ints.containsKey(key)) {
+                return (T) Integer.valueOf(value);
+            }
+        } else {
+            Object value = this.objects.get(key);
+            if (value != null) {
+                return (T) value;
+            }
+        }
+        return fallback != null ? fallback.get(key) : null;
+    }
 
+    public void setAll(GameRuleStore other) {
+        other.forEach(this::setUnchecked);
+    }
 
-    public <T>T get(GameRule<T> key) {
-        return (T) this.rules.get(key);
+    @SuppressWarnings("unchecked")
+    private void setUnchecked(GameRule<?> key, Object value) {
+        this.set((GameRule<Object>) key, value);
     }
 
     public boolean contains(GameRule<?> key) {
-        return this.rules.containsKey(key);
+        return this.booleans.containsKey(key) || this.ints.containsKey(key) || this.objects.containsKey(key);
+    }
+
+    public boolean isEmpty() {
+        return this.booleans.isEmpty() && this.ints.isEmpty() && this.objects.isEmpty();
+    }
+
+    /**
+     * @return A store with the same values, which shares them with this store if it is frozen
+     */
+    public GameRuleStore copy() {
+        if (this.frozen || this.shared) {
+            // the maps are never written to, so neither store has to be told about the other
+            GameRuleStore copy = new GameRuleStore(this.booleans, this.ints, this.objects);
+            copy.shared = true;
+            return copy;
+        }
+        GameRuleStore copy = new GameRuleStore();
+        copy.booleans.putAll(this.booleans);
+        copy.ints.putAll(this.ints);
+        copy.objects.putAll(this.objects);
+        return copy;
+    }
+
+    /**
+     * @return A store with the same values which can no longer be changed, and whose copies share its values
+     */
+    public GameRuleStore freeze() {
+        GameRuleStore frozen = this.copy();
+        frozen.unshare();
+        frozen.frozen = true;
+        return frozen;
+    }
+
+    public void forEach(BiConsumer<GameRule<?>, Object> consumer) {
+        Reference2ByteMaps.fastForEach(this.booleans, entry -> consumer.accept(entry.getKey(), entry.getByteValue() != 0));
+        Reference2IntMaps.fastForEach(this.ints, entry -> consumer.accept(entry.getKey(), entry.getIntValue()));
+        Reference2ObjectMaps.fastForEach(this.objects, entry -> consumer.accept(entry.getKey(), entry.getValue()));
     }
 
     public void applyTo(GameRules rules, @Nullable MinecraftServer server) {
-        Reference2ObjectMaps.fastForEach(this.rules, entry -> {
-            //noinspection unchecked
-            rules.set((GameRule<? super Object>) entry.getKey(), entry.getValue(), server);
-        });
+        //noinspection unchecked
+        this.forEach((key, value) -> rules.set((GameRule<? super Object>) key, value, server));
+    }
 
+    private void unshare() {
+        if (this.shared) {
+            this.booleans = new Reference2ByteOpenHashMap<>(this.booleans);
+            this.ints = new Reference2IntOpenHashMap<>(this.ints);
+            this.objects = new Reference2ObjectOpenHashMap<>(this.objects);
+            this.booleans.defaultReturnValue(ABSENT_BOOLEAN);
+            this.ints.defaultReturnValue(ABSENT_INT);
+            this.shared = false;
+        }
     }
 }
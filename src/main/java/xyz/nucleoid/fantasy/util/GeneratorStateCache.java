@@ -0,0 +1,100 @@
+package xyz.nucleoid.fantasy.util;
+
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.chunk.ChunkGeneratorStructureState;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.levelgen.RandomState;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shares the state which the chunk map derives from the chunk generator and seed between all worlds using an
+ * equivalent generator with the same seed. Building the noise router of a {@link RandomState} and the structure
+ * placement data of a {@link ChunkGeneratorStructureState} is expensive for noise generators, and both only depend on
+ * the generator settings and seed, so opening many instances of the same map should only pay for them once.
+ * <p>
+ * Generators are considered equivalent when they encode to the same data, and by identity if they can not be encoded.
+ * Every cached state is reference counted and dropped once the last chunk map holding it has been closed.
+ */
+@ApiStatus.Internal
+public final class GeneratorStateCache {
+    private static final Map<Object, Entry> ENTRIES = new HashMap<>();
+
+    private GeneratorStateCache() {
+    }
+
+    /**
+     * Tracks the cached states held by a single chunk map.
+     */
+    public static final class Lease {
+        private final List<Object> keys = new ArrayList<>();
+
+        public RandomState randomState(NoiseGeneratorSettings settings, long seed, Supplier<RandomState> factory) {
+            return this.acquire(new RandomStateKey(settings, seed), factory);
+        }
+
+        public ChunkGeneratorStructureState structureState(ChunkGenerator generator, RandomState randomState, long seed, RegistryAccess registries, Supplier<ChunkGeneratorStructureState> factory) {
+            return this.acquire(new StructureStateKey(encode(generator, registries), randomState, seed), factory);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T acquire(Object key, Supplier<T> factory) {
+            synchronized (ENTRIES) {
+                Entry entry = ENTRIES.get(key);
+                if (entry == null) {
+                    entry = new Entry(factory.get());
+                    ENTRIES.put(key, entry);
+                }
+                entry.references++;
+                this.keys.add(key);
+                return (T) entry.value;
+            }
+        }
+
+        /**
+         * Releases every state acquired through this lease.
+         */
+        public void release() {
+            synchronized (ENTRIES) {
+                for (Object key : this.keys) {
+                    Entry entry = ENTRIES.get(key);
+                    if (entry != null && --entry.references <= 0) {
+                        ENTRIES.remove(key);
+                    }
+                }
+                this.keys.clear();
+            }
+        }
+    }
+
+    private static Object encode(ChunkGenerator generator, RegistryAccess registries) {
+        @Nullable Tag encoded = ChunkGenerator.CODEC.encodeStart(registries.createSerializationContext(NbtOps.INSTANCE), generator)
+                .result()
+                .orElse(null);
+        return encoded != null ? encoded : generator;
+    }
+
+    private static final class Entry {
+        final Object value;
+        int references;
+
+        Entry(Object value) {
+            this.value = value;
+        }
+    }
+
+    private record RandomStateKey(NoiseGeneratorSettings settings, long seed) {
+    }
+
+    private record StructureStateKey(Object generator, RandomState randomState, long seed) {
+    }
+}
@@ -14,6 +14,13 @@ public final class SafeIterator<T> implements Iterator<T> {
         this.values = source.toArray();
     }
 
+    /**
+     * Iterates over the given array directly. The array must not be modified while iterating.
+     */
+    public SafeIterator(T[] values) {
+        this.values = values;
+    }
+
     @Override
     public boolean hasNext() {
         return this.values.length > this.index;
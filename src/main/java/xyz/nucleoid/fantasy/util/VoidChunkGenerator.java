@@ -57,6 +57,8 @@ public class VoidChunkGenerator extends ChunkGenerator {
 
     private static final NoiseColumn EMPTY_SAMPLE = new NoiseColumn(0, new BlockState[0]);
 
+    private static final boolean FAST_PATH_ENABLED = !Boolean.getBoolean("fantasy.disableVoidFastPath");
+
     private final Holder<Biome> biome;
 
     public static final DensityFunction ZERO_DENSITY_FUNCTION = new DensityFunction() {
@@ -124,6 +126,17 @@ public class VoidChunkGenerator extends ChunkGenerator {
         this(server.registryAccess().lookupOrThrow(Registries.BIOME), biome);
     }
 
+    /**
+     * Checks whether the chunk pipeline can skip all generation steps which do nothing for the given generator, such
+     * as building the surface, decorating and priming the heightmaps of an empty chunk.
+     * <br/>
+     * Subclasses are never skipped, as they may place blocks in any of those steps. The fast path can be turned off
+     * entirely with the {@code fantasy.disableVoidFastPath} system property.
+     */
+    public static boolean canSkipGeneration(ChunkGenerator generator) {
+        return FAST_PATH_ENABLED && generator.getClass() == VoidChunkGenerator.class;
+    }
+
     @Override
     protected MapCodec<? extends ChunkGenerator> codec() {
         return CODEC;
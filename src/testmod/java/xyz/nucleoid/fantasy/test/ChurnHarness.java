@@ -0,0 +1,286 @@
+package xyz.nucleoid.fantasy.test;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.biome.Biomes;
+import org.slf4j.Logger;
+import xyz.nucleoid.fantasy.Fantasy;
+import xyz.nucleoid.fantasy.RuntimeWorldConfig;
+import xyz.nucleoid.fantasy.RuntimeWorldHandle;
+import xyz.nucleoid.fantasy.util.VoidChunkGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Opens, ticks and closes a large amount of temporary and persistent worlds at a fixed rate, and periodically writes
+ * server health metrics as CSV. Runs without any client, so it can be driven on a dedicated server.
+ *
+ * @see ChurnHarness.Settings#parse(String)
+ */
+final class ChurnHarness {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final String CSV_HEADER = "tick,elapsed_ms,opened,closed,live_worlds,mspt_p50,mspt_p99,mspt_max,heap_after_gc_mb,heap_used_mb,open_fds,dimension_registry_size,threads";
+
+    private final MinecraftServer server;
+    private final Settings settings;
+    private final BufferedWriter output;
+    private final Path outputPath;
+
+    // ordered by when they close, as worlds might finish opening in another order than they were requested in
+    private final Queue<LiveWorld> liveWorlds = new PriorityQueue<>(Comparator.comparingInt(LiveWorld::closeAt));
+    private final List<CompletableFuture<Identifier>> unloadedWorlds = new ArrayList<>();
+    private final long startTime = System.nanoTime();
+    private int ticks;
+    private int opened;
+    private int closed;
+    private int pending;
+    private boolean cleaningUp;
+    private boolean finished;
+
+    private ChurnHarness(MinecraftServer server, Settings settings, Path outputPath) throws IOException {
+        this.server = server;
+        this.settings = settings;
+        this.outputPath = outputPath;
+        this.output = Files.newBufferedWriter(outputPath);
+        this.output.write(CSV_HEADER);
+        this.output.newLine();
+    }
+
+    static ChurnHarness start(MinecraftServer server, Settings settings) throws IOException {
+        Path outputPath = server.getServerDirectory().resolve("fantasy-churn.csv");
+        LOGGER.info("Starting world churn with {}, writing samples to {}", settings, outputPath);
+        return new ChurnHarness(server, settings, outputPath);
+    }
+
+    /**
+     * @return whether the scenario has finished
+     */
+    boolean tick() {
+        if (this.finished) {
+            return true;
+        }
+
+        this.ticks++;
+        this.closeExpiredWorlds();
+
+        int budget = Math.min(this.settings.opensPerTick, this.settings.totalWorlds - this.opened);
+        for (int i = 0; i < budget; i++) {
+            this.openWorld();
+        }
+
+        if (this.ticks % this.settings.sampleInterval == 0) {
+            this.writeSample();
+        }
+
+        if (this.opened >= this.settings.totalWorlds && this.pending == 0 && this.liveWorlds.isEmpty()) {
+            if (!this.cleaningUp) {
+                this.deleteUnloadedWorlds();
+                return false;
+            }
+            this.finish();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deletes the persistent worlds which have only been unloaded, such that no run leaves any churn worlds behind.
+     */
+    private void deleteUnloadedWorlds() {
+        this.cleaningUp = true;
+
+        Fantasy fantasy = Fantasy.get(this.server);
+        for (CompletableFuture<Identifier> unloaded : this.unloadedWorlds) {
+            this.pending++;
+            unloaded.thenComposeAsync(id -> fantasy.getOrOpenPersistentWorldAsync(id, this.createConfig()), this.server)
+                    .thenCompose(RuntimeWorldHandle::deleteAsync)
+                    .whenCompleteAsync((result, throwable) -> {
+                        this.pending--;
+                        if (throwable != null) {
+                            LOGGER.error("Failed to delete unloaded churn world", throwable);
+                        }
+                    }, this.server);
+        }
+        this.unloadedWorlds.clear();
+    }
+
+    private void openWorld() {
+        int index = this.opened++;
+        boolean persistent = index % 100 < this.settings.persistentPercent;
+
+        Fantasy fantasy = Fantasy.get(this.server);
+        RuntimeWorldConfig config = this.createConfig();
+
+        CompletableFuture<RuntimeWorldHandle> future;
+        if (persistent) {
+            future = fantasy.getOrOpenPersistentWorldAsync(Identifier.fromNamespaceAndPath("fantasy_churn", "world_" + index), config);
+        } else {
+            future = fantasy.openTemporaryWorldAsync(config);
+        }
+
+        this.pending++;
+        int closeAt = this.ticks + this.settings.lifetimeTicks;
+        future.whenCompleteAsync((handle, throwable) -> {
+            this.pending--;
+            if (throwable != null) {
+                LOGGER.error("Failed to open churn world", throwable);
+                this.closed++;
+                return;
+            }
+            this.liveWorlds.add(new LiveWorld(handle, persistent, index, closeAt));
+        }, this.server);
+    }
+
+    private RuntimeWorldConfig createConfig() {
+        return new RuntimeWorldConfig()
+                .setGenerator(new VoidChunkGenerator(this.server, Biomes.THE_VOID));
+    }
+
+    private void closeExpiredWorlds() {
+        while (!this.liveWorlds.isEmpty() && this.liveWorlds.peek().closeAt <= this.ticks) {
+            LiveWorld world = this.liveWorlds.poll();
+            // persistent worlds alternate between being unloaded and deleted to exercise both paths
+            if (world.persistent && world.index % 2 == 0) {
+                Identifier id = world.handle.getRegistryKey().identifier();
+                this.unloadedWorlds.add(world.handle.unloadAsync().thenApply(v -> id));
+            } else {
+                world.handle.delete();
+            }
+            this.closed++;
+        }
+    }
+
+    private void writeSample() {
+        long[] tickTimes = this.server.getTickTimesNanos().clone();
+        Arrays.sort(tickTimes);
+
+        String line = String.join(",",
+                Integer.toString(this.ticks),
+                Long.toString((System.nanoTime() - this.startTime) / 1_000_000),
+                Integer.toString(this.opened),
+                Integer.toString(this.closed),
+                Integer.toString(this.liveWorlds.size()),
+                formatMillis(percentile(tickTimes, 0.5)),
+                formatMillis(percentile(tickTimes, 0.99)),
+                formatMillis(tickTimes[tickTimes.length - 1]),
+                Long.toString(heapAfterGc() / (1024 * 1024)),
+                Long.toString(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024)),
+                Long.toString(openFileDescriptors()),
+                Integer.toString(this.server.registryAccess().lookupOrThrow(Registries.LEVEL_STEM).size()),
+                Integer.toString(ManagementFactory.getThreadMXBean().getThreadCount())
+        );
+
+        try {
+            this.output.write(line);
+            this.output.newLine();
+            this.output.flush();
+        } catch (IOException e) {
+            LOGGER.error("Failed to write churn sample", e);
+        }
+    }
+
+    void finish() {
+        if (this.finished) {
+            return;
+        }
+        this.finished = true;
+
+        this.writeSample();
+        try {
+            this.output.close();
+        } catch (IOException e) {
+            LOGGER.error("Failed to close churn output", e);
+        }
+
+        LOGGER.info("World churn finished after {} ticks, opened {} and closed {} worlds, samples written to {}", this.ticks, this.opened, this.closed, this.outputPath);
+
+        if (this.settings.exitWhenDone) {
+            this.server.halt(false);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * @return the heap usage right after the last garbage collection, summed over all heap pools
+     */
+    private static long heapAfterGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long openFileDescriptors() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.UnixOperatingSystemMXBean unix) {
+            return unix.getOpenFileDescriptorCount();
+        }
+        return -1;
+    }
+
+    private record LiveWorld(RuntimeWorldHandle handle, boolean persistent, int index, int closeAt) {
+    }
+
+    record Settings(int totalWorlds, int opensPerTick, int lifetimeTicks, int persistentPercent, int sampleInterval, boolean exitWhenDone) {
+        static final Settings DEFAULT = new Settings(1000, 1, 200, 20, 20, false);
+
+        /**
+         * Parses settings of the form {@code total=5000,rate=2,lifetime=200,persistent=20,sample=20,exit=true}, where
+         * all keys are optional.
+         */
+        static Settings parse(String value) {
+            Settings settings = DEFAULT;
+            for (String entry : value.split(",")) {
+                String[] pair = entry.split("=", 2);
+                if (pair.length != 2) {
+                    continue;
+                }
+                String key = pair[0].trim();
+                String argument = pair[1].trim();
+                settings = switch (key) {
+                    case "total" -> new Settings(Integer.parseInt(argument), settings.opensPerTick, settings.lifetimeTicks, settings.persistentPercent, settings.sampleInterval, settings.exitWhenDone);
+                    case "rate" -> new Settings(settings.totalWorlds, Integer.parseInt(argument), settings.lifetimeTicks, settings.persistentPercent, settings.sampleInterval, settings.exitWhenDone);
+                    case "lifetime" -> new Settings(settings.totalWorlds, settings.opensPerTick, Integer.parseInt(argument), settings.persistentPercent, settings.sampleInterval, settings.exitWhenDone);
+                    case "persistent" -> new Settings(settings.totalWorlds, settings.opensPerTick, settings.lifetimeTicks, Integer.parseInt(argument), settings.sampleInterval, settings.exitWhenDone);
+                    case "sample" -> new Settings(settings.totalWorlds, settings.opensPerTick, settings.lifetimeTicks, settings.persistentPercent, Math.max(Integer.parseInt(argument), 1), settings.exitWhenDone);
+                    case "exit" -> new Settings(settings.totalWorlds, settings.opensPerTick, settings.lifetimeTicks, settings.persistentPercent, settings.sampleInterval, Boolean.parseBoolean(argument));
+                    default -> throw new IllegalArgumentException("unknown churn setting " + key);
+                };
+            }
+            return settings;
+        }
+    }
+}
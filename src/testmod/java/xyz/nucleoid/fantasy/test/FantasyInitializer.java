@@ -1,16 +1,21 @@
 package xyz.nucleoid.fantasy.test;
 
 import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.logging.LogUtils;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.arguments.IdentifierArgument;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.Identifier;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.datafix.DataFixers;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.biome.Biomes;
 import net.minecraft.world.level.dimension.BuiltinDimensionTypes;
 import net.minecraft.world.level.levelgen.FlatLevelSource;
@@ -18,14 +23,23 @@ import net.minecraft.world.level.levelgen.flat.FlatLevelGeneratorSettings;
 import net.minecraft.world.level.portal.TeleportTransition;
 import net.minecraft.world.level.validation.DirectoryValidator;
 import net.minecraft.world.phys.Vec3;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import xyz.nucleoid.fantasy.storage.SingleDimensionLevelStorageSource;
 import xyz.nucleoid.fantasy.Fantasy;
+import xyz.nucleoid.fantasy.PregenerationOptions;
 import xyz.nucleoid.fantasy.RuntimeWorldConfig;
 import xyz.nucleoid.fantasy.RuntimeWorldHandle;
+import xyz.nucleoid.fantasy.benchmark.RegistryChurnBenchmark;
 import xyz.nucleoid.fantasy.util.VoidChunkGenerator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +50,8 @@ import static net.minecraft.commands.Commands.literal;
 public final class FantasyInitializer implements ModInitializer {
     private static final Logger LOGGER = LogUtils.getLogger();
     private final HashMap<Identifier, RuntimeWorldHandle> worlds = new HashMap<>();
+    @Nullable
+    private ChurnHarness churn;
 
     @Override
     public void onInitialize() {
@@ -56,6 +72,25 @@ public final class FantasyInitializer implements ModInitializer {
                     .setDimensionType(BuiltinDimensionTypes.OVERWORLD)
                     .setGenerator(generator)
                     .setShouldTickTime(true));
+
+            // allows running the churn scenario on a dedicated server, e.g. -Dfantasy.churn=total=5000,rate=2,exit=true
+            var churnSettings = System.getProperty("fantasy.churn");
+            if (churnSettings != null) {
+                this.startChurn(s, ChurnHarness.Settings.parse(churnSettings));
+            }
+        });
+
+        ServerTickEvents.END_SERVER_TICK.register(s -> {
+            if (this.churn != null && this.churn.tick()) {
+                this.churn = null;
+            }
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPING.register(s -> {
+            if (this.churn != null) {
+                this.churn.finish();
+                this.churn = null;
+            }
         });
 
         CommandRegistrationCallback.EVENT.register(((dispatcher, registryAccess, environment) -> {
@@ -168,6 +203,43 @@ public final class FantasyInitializer implements ModInitializer {
                             })
             ));
 
+            dispatcher.register(literal("fantasy_bench")
+                    .executes(context -> runBenchmarks(context.getSource(), RegistryChurnBenchmark.class.getSimpleName()))
+                    .then(argument("include", StringArgumentType.greedyString())
+                            .executes(context -> runBenchmarks(context.getSource(), StringArgumentType.getString(context, "include")))
+                    )
+            );
+
+            dispatcher.register(literal("fantasy_pregen_bench").then(
+                    argument("radius", IntegerArgumentType.integer(0, 256))
+                            .then(argument("fast_path", BoolArgumentType.bool())
+                                    .executes(context -> runPregenerationBenchmark(
+                                            context.getSource(),
+                                            IntegerArgumentType.getInteger(context, "radius"),
+                                            BoolArgumentType.getBool(context, "fast_path")
+                                    ))
+                            )
+            ));
+
+            dispatcher.register(literal("fantasy_churn")
+                    .then(literal("start")
+                            .executes(context -> this.startChurn(context.getSource(), ""))
+                            .then(argument("settings", StringArgumentType.greedyString())
+                                    .executes(context -> this.startChurn(context.getSource(), StringArgumentType.getString(context, "settings")))
+                            )
+                    )
+                    .then(literal("stop").executes(context -> {
+                        if (this.churn == null) {
+                            context.getSource().sendFailure(Component.literal("No churn is running"));
+                            return 0;
+                        }
+                        this.churn.finish();
+                        this.churn = null;
+                        context.getSource().sendSuccess(() -> Component.literal("Churn stopped"), false);
+                        return 1;
+                    }))
+            );
+
             dispatcher.register(literal("fantasy_unload").then(
                     argument("name", IdentifierArgument.id())
                             .executes(context -> {
@@ -191,4 +263,96 @@ public final class FantasyInitializer implements ModInitializer {
             ));
         }));
     }
+
+    private int startChurn(CommandSourceStack source, String settings) {
+        if (this.churn != null) {
+            source.sendFailure(Component.literal("A churn is already running"));
+            return 0;
+        }
+
+        try {
+            this.startChurn(source.getServer(), ChurnHarness.Settings.parse(settings));
+        } catch (Throwable e) {
+            LOGGER.error("Failed to start churn", e);
+            source.sendFailure(Component.literal("Failed to start churn: " + e.getMessage()));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.literal("Churn started"), false);
+        return 1;
+    }
+
+    private void startChurn(MinecraftServer server, ChurnHarness.Settings settings) {
+        try {
+            this.churn = ChurnHarness.start(server, settings);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open churn output", e);
+        }
+    }
+
+    /**
+     * Generates a square of chunks in a fresh void world as fast as possible and reports the throughput, such that the
+     * void generation fast path can be compared against the vanilla chunk pipeline.
+     */
+    private static int runPregenerationBenchmark(CommandSourceStack source, int radius, boolean fastPath) {
+        var server = source.getServer();
+        // subclasses of the void generator always go through the full chunk pipeline
+        var generator = fastPath ? new VoidChunkGenerator(server, Biomes.THE_VOID) : new VoidChunkGenerator(server, Biomes.THE_VOID) {};
+        var config = new RuntimeWorldConfig()
+                .setGenerator(generator)
+                .setDimensionType(BuiltinDimensionTypes.OVERWORLD);
+
+        var handle = Fantasy.get(server).openTemporaryWorld(config);
+        var options = new PregenerationOptions()
+                .setMaxConcurrency(64)
+                .setTargetMspt(50.0F)
+                .setResumable(false);
+
+        handle.pregenerate(new ChunkPos(0, 0), radius, options).whenComplete((progress, throwable) -> {
+            handle.delete();
+            if (throwable != null) {
+                LOGGER.error("Failed to run pregeneration benchmark", throwable);
+                source.sendFailure(Component.literal("Failed to run pregeneration benchmark"));
+                return;
+            }
+
+            String result = String.format("Generated %d chunks in %d ms (%.1f chunks/s, up to %d in flight, fast path %s)",
+                    progress.totalChunks(), progress.elapsedNanos() / 1_000_000, progress.getChunksPerSecond(), progress.peakInFlight(), fastPath ? "on" : "off");
+            LOGGER.info(result);
+            source.sendSuccess(() -> Component.literal(result), false);
+        });
+
+        source.sendSuccess(() -> Component.literal("Pregenerating " + (2 * radius + 1) * (2 * radius + 1) + " chunks"), false);
+        return 1;
+    }
+
+    /**
+     * Runs JMH benchmarks inside the game, where Fantasy's mixins are applied, and writes the results next to the
+     * server as JSON.
+     */
+    private static int runBenchmarks(CommandSourceStack source, String include) {
+        Path resultFile = source.getServer().getServerDirectory().resolve("fantasy-jmh.json");
+
+        var options = new OptionsBuilder()
+                .include(include)
+                .forks(0)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+
+        var thread = new Thread(() -> {
+            try {
+                Collection<?> results = new Runner(options).run();
+                source.sendSuccess(() -> Component.literal("Finished " + results.size() + " benchmarks, results written to " + resultFile), false);
+            } catch (Throwable e) {
+                LOGGER.error("Failed to run benchmarks", e);
+                source.sendFailure(Component.literal("Failed to run benchmarks"));
+            }
+        }, "Fantasy Benchmark Runner");
+        thread.setDaemon(true);
+        thread.start();
+
+        source.sendSuccess(() -> Component.literal("Running benchmarks matching " + include), false);
+        return 1;
+    }
 }